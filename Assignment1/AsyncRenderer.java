@@ -0,0 +1,168 @@
+/**
+ * Author :  Robert Sanborn
+ * File :    AsyncRenderer
+ * Purpose : CSCI 145, Assignment 1
+ * Date :    1/26/17
+ */
+
+import java.util.function.*;
+
+/* Class AsyncRenderer
+ *
+ * A HidatoRenderer that lets the search run at full speed while the
+ * puzzle is drawn on a thread of its own.
+ *
+ * fillCell and clearCell only pack the update into a long and add it
+ * to an EventRing, which costs the search a few stores. A render thread
+ * drains the ring once per frame. It keeps the latest value of each
+ * cell the frame's events touched, so a cell filled and cleared many
+ * times between frames is drawn once, as it stands at the end of the
+ * frame, or not at all if it ended as it started. Only the render
+ * thread ever calls the target renderer.
+ *
+ * If the render thread falls so far behind that the ring fills up, the
+ * search waits for it rather than lose an update. close() draws the
+ * final state and stops the thread.
+ */
+public class AsyncRenderer implements HidatoRenderer {
+
+    // Events pack the row, column and value (0 for a clear) of an update
+    private static final int BITS = 21;
+    private static final long FIELD = (1L << BITS) - 1;
+
+    private final HidatoRenderer target;
+    private final int width;
+    private final long framePeriod;
+    private final EventRing ring = new EventRing(1 << 16);
+    private final Thread thread;
+    private volatile boolean closed;
+
+    // Render thread state: the value shown in each cell and the latest
+    // value it has been given, and the cells whose latest value has
+    // changed since the last frame
+    private final int[] shown;
+    private final int[] latest;
+    private final boolean[] dirty;
+    private final int[] dirtyCells;
+    private int dirtyCount;
+
+    // Records one drained event in latest and the dirty list
+    private final LongConsumer collect = new LongConsumer() {
+        public void accept(long event) {
+            int cell = (int) (event >>> (2 * BITS)) * width
+                    + (int) ((event >>> BITS) & FIELD);
+            latest[cell] = (int) (event & FIELD);
+            if (!dirty[cell]) {
+                dirty[cell] = true;
+                dirtyCells[dirtyCount++] = cell;
+            }
+        }
+    };
+
+    private long events;
+    private long cellsDrawn;
+    private long frames;
+
+    /* Create a renderer that draws on target, a grid of the given size,
+     * at most fps times a second.
+     */
+    public AsyncRenderer(HidatoRenderer target, int height, int width,
+                         int fps) {
+        this.target = target;
+        this.width = width;
+        this.framePeriod = 1000000000L / Math.max(fps, 1);
+        shown = new int[height * width];
+        latest = new int[height * width];
+        dirty = new boolean[height * width];
+        dirtyCells = new int[height * width];
+
+        thread = new Thread(new Runnable() {
+            public void run() {
+                render();
+            }
+        }, "Hidato render");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void fillCell(int r, int c, int n) {
+        publish(((long) r << (2 * BITS)) | ((long) c << BITS) | n);
+    }
+
+    public void clearCell(int r, int c) {
+        publish(((long) r << (2 * BITS)) | ((long) c << BITS));
+    }
+
+    /* Draw every update published so far and stop the render thread.
+     */
+    public void close() throws InterruptedException {
+        closed = true;
+        thread.join();
+    }
+
+    /* Updates received, cells actually drawn and frames drawn, once
+     * close() has returned.
+     */
+    public long getEvents() {
+        return events;
+    }
+
+    public long getCellsDrawn() {
+        return cellsDrawn;
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    private void publish(long event) {
+        while (!ring.offer(event)) {
+            Thread.yield();
+        }
+    }
+
+    // The render thread: one frame per period until closed, then one
+    // last frame for whatever is left
+    private void render() {
+        long next = System.nanoTime();
+        while (!closed) {
+            frame();
+            next += framePeriod;
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                try {
+                    Thread.sleep(wait / 1000000, (int) (wait % 1000000));
+                } catch (InterruptedException e) {
+                    break;
+                }
+            } else {
+                next = System.nanoTime();
+            }
+        }
+        frame();
+    }
+
+    private void frame() {
+        events += ring.drain(collect);
+
+        if (dirtyCount == 0) {
+            return;
+        }
+        for (int i = 0; i < dirtyCount; i++) {
+            int cell = dirtyCells[i];
+            dirty[cell] = false;
+            if (latest[cell] == shown[cell]) {
+                continue;
+            }
+            shown[cell] = latest[cell];
+            cellsDrawn++;
+            if (latest[cell] > 0) {
+                target.fillCell(cell / width, cell % width, latest[cell]);
+            } else {
+                target.clearCell(cell / width, cell % width);
+            }
+        }
+        dirtyCount = 0;
+        frames++;
+    }
+}
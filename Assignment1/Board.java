@@ -0,0 +1,159 @@
+/**
+ * Author :  Robert Sanborn
+ * File :    Board
+ * Purpose : CSCI 145, Assignment 1
+ * Date :    1/26/17
+ */
+
+import java.util.*;
+
+/* Class Board
+ *
+ * The state of a Hidato puzzle while it is being solved. Each
+ * HidatoSolver owns one Board; the Puzzle it was made from is shared.
+ *
+ * Every cell is a single int, cell = row * width + col, so the board
+ * is two flat int arrays instead of int[][] tables of coordinate
+ * pairs:
+ *   * cellValue[cell] is the value in the cell, 0 if the cell is still
+ *     free and WALL if the cell is an 'x' (not part of the puzzle).
+ *   * valueCell[value] is the cell holding value, or NONE if the value
+ *     has not been placed yet. Index 0 is unused.
+ *
+ * The remaining fields are the puzzle's own read-only arrays (see
+ * Puzzle), repeated here so the search reaches them in one step.
+ */
+public class Board {
+
+    static final int WALL = Puzzle.WALL;
+    static final int NONE = Puzzle.NONE;
+
+    final Puzzle puzzle;
+
+    final int height;
+    final int width;
+    final int highestNum;
+
+    final int[] cellValue;
+    final int[] valueCell;
+
+    final int[] cellRow;
+    final int[] cellCol;
+
+    final int[] neighborStart;
+    final int[] neighbors;
+
+    final int[] nextClue;
+    final int[] prevClue;
+    final int[] nextMissing;
+
+    final boolean mustFill;
+
+    /* Create a board holding just the puzzle's given values.
+     */
+    public Board(Puzzle puzzle) {
+        this(puzzle, puzzle.givenValue, puzzle.clueCell);
+    }
+
+    /* Create a copy of another board, values placed so far included.
+     */
+    public Board(Board other) {
+        this(other.puzzle, other.cellValue, other.valueCell);
+    }
+
+    private Board(Puzzle puzzle, int[] cellValue, int[] valueCell) {
+        this.puzzle = puzzle;
+        this.height = puzzle.height;
+        this.width = puzzle.width;
+        this.highestNum = puzzle.highestNum;
+        this.cellValue = cellValue.clone();
+        this.valueCell = valueCell.clone();
+        this.cellRow = puzzle.cellRow;
+        this.cellCol = puzzle.cellCol;
+        this.neighborStart = puzzle.neighborStart;
+        this.neighbors = puzzle.neighbors;
+        this.nextClue = puzzle.nextClue;
+        this.prevClue = puzzle.prevClue;
+        this.nextMissing = puzzle.nextMissing;
+        this.mustFill = puzzle.mustFill;
+    }
+
+    public Puzzle getPuzzle() {
+        return puzzle;
+    }
+
+    public int cells() {
+        return cellValue.length;
+    }
+
+    public int row(int cell) {
+        return cellRow[cell];
+    }
+
+    public int col(int cell) {
+        return cellCol[cell];
+    }
+
+    public int valueAt(int cell) {
+        return cellValue[cell];
+    }
+
+    public int cellOf(int value) {
+        return valueCell[value];
+    }
+
+    public boolean isFree(int cell) {
+        return cellValue[cell] == 0;
+    }
+
+    public boolean isPlaced(int value) {
+        return valueCell[value] != NONE;
+    }
+
+    /* Number of moves a king needs to get from cell a to cell b,
+     * ignoring walls and occupied cells.
+     */
+    public int distance(int a, int b) {
+        return Math.max(Math.abs(cellRow[a] - cellRow[b]),
+                        Math.abs(cellCol[a] - cellCol[b]));
+    }
+
+    public void place(int cell, int value) {
+        cellValue[cell] = value;
+        valueCell[value] = cell;
+    }
+
+    public void remove(int cell, int value) {
+        cellValue[cell] = 0;
+        valueCell[value] = NONE;
+    }
+
+    /* Place value in cell, logging the change on trail so that undoing
+     * the trail removes it again.
+     */
+    void place(int cell, int value, Trail trail) {
+        trail.set(cellValue, cell, value);
+        trail.set(valueCell, value, cell);
+    }
+
+    /* The board as rows of right-justified values, with an x for each
+     * wall and a . for each cell still free.
+     */
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                int value = cellValue[row * width + col];
+                if (value > 0) {
+                    text.append(String.format("%4d", value));
+                } else if (value == 0) {
+                    text.append("   .");
+                } else {
+                    text.append("   x");
+                }
+            }
+            text.append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Author :  Robert Sanborn
+ * File :    DeadEndCheck
+ * Purpose : CSCI 145, Assignment 1
+ * Date :    1/26/17
+ */
+
+/* Class DeadEndCheck
+ *
+ * Finds free cells that can only be an end of the path.
+ *
+ * The value that goes in a free cell needs a neighbor for the value
+ * before it and another for the value after it, unless it is 1 or the
+ * highest value. A neighbor is usable for that if it is free, or if it
+ * holds a value v with v - 1 or v + 1 still missing. A free cell with
+ * fewer than two usable neighbors is a dead end, and there can be no
+ * more dead ends than there are missing values among 1 and the highest
+ * value. A dead end with no usable neighbor at all can never be filled.
+ *
+ * In the same way a placed value with both neighbors missing needs two
+ * free neighbors, and with one missing needs one.
+ *
+ * Placing a value in a cell changes the usable neighbors only of free
+ * cells next to it or next to the values either side of it. It also
+ * takes a free neighbor away from the placed values next to it, and
+ * changes how many free neighbors the values either side of it need.
+ * So when 1 and the highest value are both on the board only the cell,
+ * the cells of the values either side and the neighbors of all three
+ * are looked at. When one of them is missing the dead ends are counted
+ * over the whole board.
+ *
+ * As with RegionCheck this assumes every free cell must be filled, and
+ * passes everything on a puzzle with more free cells than missing
+ * values.
+ */
+class DeadEndCheck {
+
+    private final Board board;
+    private final boolean mustFill;
+
+    /* Pre: board is the starting board of the search.
+     */
+    DeadEndCheck(Board board) {
+        this.board = board;
+        mustFill = board.mustFill;
+    }
+
+    /* Check every cell on the board.
+     */
+    boolean checkAll() {
+        if (!mustFill) {
+            return true;
+        }
+        int deadEnds = 0;
+        for (int cell = 0; cell < board.cells(); cell++) {
+            if (board.isFree(cell)) {
+                int usable = usableNeighbors(cell);
+                if (usable == 0) {
+                    return false;
+                }
+                if (usable == 1) {
+                    deadEnds++;
+                }
+            } else if (board.valueAt(cell) > 0 && !hasRoom(cell)) {
+                return false;
+            }
+        }
+        return deadEnds <= allowedEnds();
+    }
+
+    /* Check the cells that can have changed since value was placed in
+     * cell.
+     */
+    boolean checkAround(int cell, int value) {
+        if (!mustFill) {
+            return true;
+        }
+        if (allowedEnds() > 0) {
+            return checkAll();
+        }
+        if (!checkNear(cell)) {
+            return false;
+        }
+        if (value > 1 && board.isPlaced(value - 1)
+                && !checkNear(board.cellOf(value - 1))) {
+            return false;
+        }
+        if (value < board.highestNum && board.isPlaced(value + 1)
+                && !checkNear(board.cellOf(value + 1))) {
+            return false;
+        }
+        return true;
+    }
+
+    // With no dead ends allowed, check cell and its neighbors, free or
+    // placed
+    private boolean checkNear(int cell) {
+        if (!hasRoom(cell)) {
+            return false;
+        }
+        for (int i = board.neighborStart[cell];
+             i < board.neighborStart[cell + 1]; i++) {
+            int next = board.neighbors[i];
+            if (board.isFree(next)) {
+                if (usableNeighbors(next) < 2) {
+                    return false;
+                }
+            } else if (board.valueAt(next) > 0 && !hasRoom(next)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Usable neighbors of a free cell, counting no higher than two
+    private int usableNeighbors(int cell) {
+        int usable = 0;
+        for (int i = board.neighborStart[cell];
+             i < board.neighborStart[cell + 1] && usable < 2; i++) {
+            int next = board.neighbors[i];
+            if (board.isFree(next) || missingSides(board.valueAt(next)) > 0) {
+                usable++;
+            }
+        }
+        return usable;
+    }
+
+    // Whether the placed value in cell has a free neighbor for each of
+    // its missing neighbor values
+    private boolean hasRoom(int cell) {
+        int needed = missingSides(board.valueAt(cell));
+        for (int i = board.neighborStart[cell];
+             i < board.neighborStart[cell + 1] && needed > 0; i++) {
+            if (board.isFree(board.neighbors[i])) {
+                needed--;
+            }
+        }
+        return needed == 0;
+    }
+
+    // How many of value - 1 and value + 1 are missing
+    private int missingSides(int value) {
+        int sides = 0;
+        if (value > 1 && !board.isPlaced(value - 1)) {
+            sides++;
+        }
+        if (value < board.highestNum && !board.isPlaced(value + 1)) {
+            sides++;
+        }
+        return sides;
+    }
+
+    // How many free cells may be an end of the path
+    private int allowedEnds() {
+        return (board.isPlaced(1) ? 0 : 1)
+             + (board.isPlaced(board.highestNum) ? 0 : 1);
+    }
+}
@@ -0,0 +1,416 @@
+/**
+ * Author :  Robert Sanborn
+ * File :    DomainPropagator
+ * Purpose : CSCI 145, Assignment 1
+ * Date :    1/26/17
+ */
+
+/* Class DomainPropagator
+ *
+ * The cells each value could still go in, kept as bitsets over the
+ * cells of a Board and narrowed until nothing more can be taken out.
+ *
+ * A placed value's domain is its own cell. A missing value's domain
+ * starts as every free cell and is then cut down to the cells next to
+ * some cell of the value below it and next to some cell of the value
+ * above it. Sweeping this up and then down the values measures the
+ * distance to the nearest placed value on each side through free
+ * cells, so it is never weaker than the Chebyshev test. A value whose
+ * domain has shrunk to one cell owns that cell, which is taken out of
+ * every other domain, and the sweeps start again until nothing
+ * changes.
+ *
+ * With hidden singles on, the same domains are also read the other way
+ * round: for each free cell, which missing values could go there. When
+ * the path has to cover every free cell, a cell no value can take
+ * means failure and a cell only one value can take forces that value
+ * there, even if its domain still holds other cells. This index over
+ * cells is rebuilt from the domains on each round of the fixpoint.
+ *
+ * With matching on, once the other rules have nothing left to take
+ * out, a MatchingFilter checks that the missing values can still all
+ * have cells of their own and takes out the cells no such assignment
+ * uses. If that changes anything the rounds start again.
+ *
+ * propagate() returns false if some value is left with nowhere to go.
+ * Otherwise forced() lists the missing values whose domain is a single
+ * cell, so they can be placed without branching, and contains(value,
+ * cell) narrows the cells the search tries.
+ *
+ * A domain is a long[] of (cells + 63) / 64 words, bit cell % 64 of
+ * word cell / 64. The neighbors of a set of cells are found a row of
+ * bits at a time: shifting by one cell moves the set one column, and
+ * by width cells one row, with masks keeping the column shifts from
+ * wrapping onto the next row.
+ */
+class DomainPropagator {
+
+    private final Board board;
+    private final int words;
+    private final int width;
+
+    // domain[value] for 1 <= value <= highestNum
+    private final long[][] domain;
+
+    // Cells that are not walls, and those of them not in the first or
+    // the last column
+    private final long[] open;
+    private final long[] notFirstCol;
+    private final long[] notLastCol;
+
+    // Scratch sets
+    private final long[] free;
+    private final long[] around;
+    private final long[] spread;
+    private final long[] shifted;
+
+    private final int[] forced;
+    private int forcedCount;
+
+    // Whether to look for hidden singles, and whether they apply: the
+    // free cells and the missing values are as many, so every free
+    // cell must take a value
+    private final boolean hiddenSingles;
+    private final boolean mustFill;
+
+    // The cell index: how many missing values have each cell in their
+    // domain, and the last of them counted
+    private final int[] cellCount;
+    private final int[] cellValue;
+    private int hiddenCount;
+
+    // The all-different filter, or null if it is off
+    private final MatchingFilter matching;
+    private int matchingCuts;
+
+    DomainPropagator(Board board, boolean hiddenSingles, boolean matching) {
+        this.board = board;
+        this.hiddenSingles = hiddenSingles;
+        this.width = board.width;
+        words = (board.cells() + 63) >>> 6;
+        domain = new long[board.highestNum + 1][words];
+
+        open = new long[words];
+        notFirstCol = new long[words];
+        notLastCol = new long[words];
+        for (int cell = 0; cell < board.cells(); cell++) {
+            if (board.puzzle.givenAt(cell) != Board.WALL) {
+                set(open, cell);
+            }
+            if (board.col(cell) != 0) {
+                set(notFirstCol, cell);
+            }
+            if (board.col(cell) != width - 1) {
+                set(notLastCol, cell);
+            }
+        }
+
+        free = new long[words];
+        around = new long[words];
+        spread = new long[words];
+        shifted = new long[words];
+        forced = new int[board.highestNum];
+        mustFill = board.mustFill;
+        cellCount = new int[board.cells()];
+        cellValue = new int[board.cells()];
+        this.matching = matching
+                ? new MatchingFilter(board, domain, words) : null;
+    }
+
+    /* Narrow every domain as far as it will go on the board as it
+     * stands. Returns false if some value can no longer be placed.
+     */
+    boolean propagate() {
+        int highest = board.highestNum;
+        hiddenCount = 0;
+        matchingCuts = 0;
+
+        for (int i = 0; i < words; i++) {
+            free[i] = 0;
+        }
+        for (int cell = 0; cell < board.cells(); cell++) {
+            if (board.isFree(cell)) {
+                set(free, cell);
+            }
+        }
+        for (int value = 1; value <= highest; value++) {
+            long[] d = domain[value];
+            if (board.isPlaced(value)) {
+                for (int i = 0; i < words; i++) {
+                    d[i] = 0;
+                }
+                set(d, board.cellOf(value));
+            } else {
+                System.arraycopy(free, 0, d, 0, words);
+            }
+        }
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            // Up the values, then down
+            for (int value = 2; value <= highest; value++) {
+                int result = narrow(value, value - 1);
+                if (result < 0) {
+                    return false;
+                }
+                changed |= result > 0;
+            }
+            for (int value = highest - 1; value >= 1; value--) {
+                int result = narrow(value, value + 1);
+                if (result < 0) {
+                    return false;
+                }
+                changed |= result > 0;
+            }
+
+            // A missing value left with one cell owns it
+            for (int value = 1; value <= highest; value++) {
+                if (board.isPlaced(value)) {
+                    continue;
+                }
+                int cell = single(domain[value]);
+                if (cell == Board.NONE) {
+                    continue;
+                }
+                for (int other = 1; other <= highest; other++) {
+                    if (other != value && !board.isPlaced(other)
+                            && has(domain[other], cell)) {
+                        clear(domain[other], cell);
+                        if (isEmpty(domain[other])) {
+                            return false;
+                        }
+                        changed = true;
+                    }
+                }
+            }
+
+            if (hiddenSingles && mustFill) {
+                int result = hiddenSingles();
+                if (result < 0) {
+                    return false;
+                }
+                changed |= result > 0;
+            }
+
+            if (matching != null && !changed) {
+                int result = matching.filter();
+                if (result < 0) {
+                    return false;
+                }
+                matchingCuts += matching.cuts();
+                changed = result > 0;
+            }
+        }
+
+        forcedCount = 0;
+        for (int value = 1; value <= highest; value++) {
+            if (!board.isPlaced(value) && single(domain[value]) != Board.NONE) {
+                forced[forcedCount++] = value;
+            }
+        }
+        return true;
+    }
+
+    /* The number of values the last propagate() forced into a cell
+     * because no other value could take that cell.
+     */
+    int hiddenCount() {
+        return hiddenCount;
+    }
+
+    /* The number of cells the matching filter took out of domains in
+     * the last propagate().
+     */
+    int matchingCuts() {
+        return matchingCuts;
+    }
+
+    /* The number of missing values the last propagate() pinned to a
+     * single cell, and those values.
+     */
+    int forcedCount() {
+        return forcedCount;
+    }
+
+    int forced(int i) {
+        return forced[i];
+    }
+
+    /* The one cell left in value's domain after the last propagate().
+     */
+    int forcedCell(int value) {
+        return single(domain[value]);
+    }
+
+    /* Whether cell was still in value's domain after the last
+     * propagate().
+     */
+    boolean contains(int value, int cell) {
+        return has(domain[value], cell);
+    }
+
+    // Rebuild the cell index and pin each value that is the only one
+    // left for some free cell to that cell. Returns -1 if a free cell
+    // has no value left, 1 if any domain changed and 0 if not.
+    private int hiddenSingles() {
+        for (int cell = 0; cell < board.cells(); cell++) {
+            cellCount[cell] = 0;
+        }
+        for (int value = 1; value <= board.highestNum; value++) {
+            if (board.isPlaced(value)) {
+                continue;
+            }
+            long[] d = domain[value];
+            for (int i = 0; i < words; i++) {
+                long bits = d[i];
+                while (bits != 0) {
+                    int cell = (i << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    cellCount[cell]++;
+                    cellValue[cell] = value;
+                }
+            }
+        }
+
+        int result = 0;
+        for (int cell = 0; cell < board.cells(); cell++) {
+            if (!has(free, cell)) {
+                continue;
+            }
+            if (cellCount[cell] == 0) {
+                return -1;
+            }
+            if (cellCount[cell] == 1) {
+                long[] d = domain[cellValue[cell]];
+                if (single(d) == cell) {
+                    continue;
+                }
+                if (!has(d, cell)) {
+                    // An earlier cell already took this value
+                    return -1;
+                }
+                for (int i = 0; i < words; i++) {
+                    d[i] = 0;
+                }
+                set(d, cell);
+                hiddenCount++;
+                result = 1;
+            }
+        }
+        return result;
+    }
+
+    // Cut value's domain down to the neighbors of the domain of the
+    // adjacent value from. Returns -1 if that empties it, 1 if it
+    // changed and 0 if not.
+    private int narrow(int value, int from) {
+        neighborsOf(domain[from], around);
+
+        long[] d = domain[value];
+        boolean changed = false;
+        boolean empty = true;
+        for (int i = 0; i < words; i++) {
+            long cut = d[i] & around[i];
+            if (cut != d[i]) {
+                d[i] = cut;
+                changed = true;
+            }
+            if (cut != 0) {
+                empty = false;
+            }
+        }
+        if (empty) {
+            return -1;
+        }
+        return changed ? 1 : 0;
+    }
+
+    // Store in result the open cells within one king move of some cell
+    // of set, the cells of set included
+    private void neighborsOf(long[] set, long[] result) {
+        // Spread along the rows
+        shift(set, 1, shifted);
+        for (int i = 0; i < words; i++) {
+            spread[i] = set[i] | (shifted[i] & notFirstCol[i]);
+        }
+        shift(set, -1, shifted);
+        for (int i = 0; i < words; i++) {
+            spread[i] |= shifted[i] & notLastCol[i];
+        }
+
+        // Then up and down the columns
+        shift(spread, width, shifted);
+        for (int i = 0; i < words; i++) {
+            result[i] = spread[i] | shifted[i];
+        }
+        shift(spread, -width, shifted);
+        for (int i = 0; i < words; i++) {
+            result[i] = (result[i] | shifted[i]) & open[i];
+        }
+    }
+
+    // Store in result the cells of set moved by the given number of
+    // cells, towards higher cells if it is positive
+    private void shift(long[] set, int by, long[] result) {
+        int wordShift = Math.abs(by) >>> 6;
+        int bitShift = Math.abs(by) & 63;
+        for (int i = 0; i < words; i++) {
+            long value = 0;
+            if (by >= 0) {
+                int from = i - wordShift;
+                if (from >= 0) {
+                    value = set[from] << bitShift;
+                    if (bitShift != 0 && from > 0) {
+                        value |= set[from - 1] >>> (64 - bitShift);
+                    }
+                }
+            } else {
+                int from = i + wordShift;
+                if (from < words) {
+                    value = set[from] >>> bitShift;
+                    if (bitShift != 0 && from + 1 < words) {
+                        value |= set[from + 1] << (64 - bitShift);
+                    }
+                }
+            }
+            result[i] = value;
+        }
+    }
+
+    // The only cell in set, or Board.NONE if it has none or several
+    private int single(long[] set) {
+        int cell = Board.NONE;
+        for (int i = 0; i < words; i++) {
+            if (set[i] != 0) {
+                if (cell != Board.NONE || Long.bitCount(set[i]) > 1) {
+                    return Board.NONE;
+                }
+                cell = (i << 6) + Long.numberOfTrailingZeros(set[i]);
+            }
+        }
+        return cell;
+    }
+
+    private boolean isEmpty(long[] set) {
+        for (int i = 0; i < words; i++) {
+            if (set[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean has(long[] set, int cell) {
+        return (set[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    private static void set(long[] set, int cell) {
+        set[cell >>> 6] |= 1L << cell;
+    }
+
+    static void clear(long[] set, int cell) {
+        set[cell >>> 6] &= ~(1L << cell);
+    }
+}
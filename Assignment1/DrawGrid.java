@@ -71,8 +71,18 @@ import java.io.File;
  * set the delay time to the given number of milliseconds. So, a one
  * second delay after each step is obtained by calling g.setDelay(1000).
  * The default delay is 50 milliseconds.
+ *
+ * Note: Alternatively, g.setFrameRate(int fps) draws at most fps frames
+ * per second and never delays. fillCell and clearCell then only record
+ * the cell's new value and mark the cell dirty; each frame draws the
+ * dirty cells as they stand at that moment, so a cell changed many
+ * times between frames is drawn once, with its latest value. Call
+ * g.flush() when the search is over to draw the final state.
+ *
+ * Note: Each update repaints only the cell it changed on the screen,
+ * not the whole window.
  */
-public class DrawGrid {
+public class DrawGrid implements HidatoRenderer {
 
    // Constants for Color for the grid
    private static final Color WALL_COLOR = Color.BLACK;
@@ -116,6 +126,54 @@ public class DrawGrid {
       }
    }
    
+   /* Set the frame rate.
+    *
+    * With fps > 0, the grid is redrawn at most fps times a second and
+    * fillCell does not delay. With fps <= 0, every fillCell and
+    * clearCell is drawn at once, and fillCell delays, as before.
+    *
+    * Pre: Draw grid object has been constructed.
+    * Post: The frame rate is set, and any cells waiting for the next
+    *   frame have been drawn.
+    */
+   public void setFrameRate(int fps) {
+      flush();
+      if (fps > 0) {
+         framePeriod = 1000000000L / fps;
+      } else {
+         framePeriod = 0;
+      }
+      nextFrame = System.nanoTime();
+   }
+   
+   /* Draw every cell that is waiting for the next frame.
+    *
+    * Pre: The grid has been constructed, fully initialized and draw()
+    *   has been called at least once.
+    * Post: Every cell shows its latest value.
+    */
+   public void flush() {
+      if (dirtyCount == 0) {
+         return;
+      }
+      for (int i = 0; i < dirtyCount; i++) {
+         int r = dirtyCells[i] / width;
+         int c = dirtyCells[i] % width;
+         GridCell gc = grid[c][r];
+         gc.dirty = false;
+         if (gc.value == gc.shown) {
+            continue;
+         }
+         if (gc.value != 0) {
+            fillValueCell(r, c, VALUE_COLOR, CELL_BACKGROUND);
+         } else {
+            eraseCell(r, c);
+         }
+         repaintCell(r, c);
+      }
+      dirtyCount = 0;
+   }
+   
    /* Create a DrawGrid object.
     *
     * Pre: w and h are ints with 2 <= w, h <= 20
@@ -136,6 +194,7 @@ public class DrawGrid {
       for (int c = 0; c < width; c++)
          for (int r = 0; r < height; r++)
             grid[c][r] = new GridCell();
+      dirtyCells = new int[width * height];
             
       panel = new DrawingPanel(2 * BORDER_WIDTH + CELL_SIZE * width + 1,
                                2 * BORDER_WIDTH + CELL_SIZE * height + 1);
@@ -218,7 +277,7 @@ public class DrawGrid {
                   if (gc.value != 0) {
                      fillValueCell(r, c, VALUE_COLOR, CELL_BACKGROUND);
                   } else {
-                     clearCell(r, c);
+                     eraseCell(r, c);
                   }
                   drawEdges(r, c);
                   break;
@@ -228,6 +287,7 @@ public class DrawGrid {
             }
          }
       }
+      panel.repaint();
    }
    
    /* Fill the given cell with the value n with the given color.
@@ -244,7 +304,12 @@ public class DrawGrid {
       GridCell gc = grid[c][r];
       assert gc.class_ == CellClass.VALUE || gc.class_ == CellClass.FIXED;
       gc.value = n;
+      if (framePeriod > 0) {
+         markDirty(r, c);
+         return;
+      }
       fillValueCell(r, c, VALUE_COLOR, CELL_BACKGROUND);
+      repaintCell(r, c);
       panel.sleep(sleepTime);
    }
       
@@ -260,9 +325,36 @@ public class DrawGrid {
       GridCell gc = grid[c][r];
       assert gc.class_ == CellClass.VALUE;
       gc.value = 0;
-      
-      pen.setColor(CELL_BACKGROUND);
-      pen.fillRect(cellLeft(c), cellTop(r), CELL_SIZE - 1, CELL_SIZE - 1);
+      if (framePeriod > 0) {
+         markDirty(r, c);
+         return;
+      }
+      eraseCell(r, c);
+      repaintCell(r, c);
+   }
+
+   // Frame rate mode. framePeriod is the time between frames in
+   // nanoseconds, 0 when every update is drawn at once, and nextFrame
+   // the time the next frame is due. dirtyCells holds the cells
+   // (r * width + c) changed since the last frame.
+   private long framePeriod = 0;
+   private long nextFrame = 0;
+   private int[] dirtyCells;
+   private int dirtyCount = 0;
+   
+   // Note that the cell at (r, c) has changed, and draw a frame if one
+   // is due
+   private void markDirty(int r, int c) {
+      GridCell gc = grid[c][r];
+      if (!gc.dirty) {
+         gc.dirty = true;
+         dirtyCells[dirtyCount++] = r * width + c;
+      }
+      long now = System.nanoTime();
+      if (now - nextFrame >= 0) {
+         flush();
+         nextFrame = now + framePeriod;
+      }
    }
 
    // The three different types of grid cells
@@ -273,11 +365,15 @@ public class DrawGrid {
       CellClass class_;
       int value; // 0 == not-specified, 1-n are values
       boolean exterior; // true for EMPTY cells on grid exterior
+      int shown; // the value on the display, 0 if none
+      boolean dirty; // true if waiting for the next frame
       
       GridCell() {
          class_ = CellClass.EMPTY;
          value = 0;
          exterior = false;
+         shown = 0;
+         dirty = false;
       }
    }
    
@@ -351,6 +447,19 @@ public class DrawGrid {
       float x = x0 + cellCenter + gd.centerX;
       float y = y0 + cellCenter + gd.centerY;
       pen.drawGlyphVector(gd.gv, x, y);
+      gc.shown = gc.value;
+   }
+   
+   // Repaint the cell at (r, c), and nothing else, on the screen
+   private void repaintCell(int r, int c) {
+      panel.repaint(cellLeft(c), cellTop(r), CELL_SIZE, CELL_SIZE);
+   }
+   
+   // Clear the value from a cell
+   private void eraseCell(int r, int c) {
+      pen.setColor(CELL_BACKGROUND);
+      pen.fillRect(cellLeft(c), cellTop(r), CELL_SIZE - 1, CELL_SIZE - 1);
+      grid[c][r].shown = 0;
    }
    
    // Draw an empty cell
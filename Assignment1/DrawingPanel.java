@@ -718,6 +718,7 @@ public final class DrawingPanel implements ImageObserver {
     private boolean antialias = isAntiAliasDefault();   // true to smooth corners of shapes
     private boolean gridLines = false;     // grid lines every 10px on screen
     private boolean hasBeenSaved = false;  // set true once saved to file (to avoid re-saving same panel)
+    private boolean reportsChanges = false;   // true once repaint(x, y, w, h) has been called
     private BufferedImage image;           // remembers drawing commands
     private Color backgroundColor = Color.WHITE;
     private Gif89Encoder encoder;          // for saving animations
@@ -2253,6 +2254,37 @@ public final class DrawingPanel implements ImageObserver {
         return hack[0];
     }
 
+    /**
+     * Repaints the panel on the screen now, rather than at the next tick of
+     * the repaint timer.
+     * If the DrawingPanel is not showing on the screen, has no effect.
+     */
+    public void repaint() {
+        if (isGraphical() && frame.isVisible()) {
+            panel.repaint();
+        }
+    }
+
+    /**
+     * Repaints just the given rectangle of the image on the screen now.
+     * Once this has been called, the panel trusts the caller to report every
+     * change it draws this way: sleep() and the repaint timer stop repainting
+     * the whole image, and call repaint() after drawing anything that was not
+     * reported.
+     * If the DrawingPanel is not showing on the screen, has no effect.
+     * @param x x-coordinate of the rectangle's top-left corner, in pixels
+     * @param y y-coordinate of the rectangle's top-left corner, in pixels
+     * @param width width of the rectangle, in pixels
+     * @param height height of the rectangle, in pixels
+     */
+    public void repaint(int x, int y, int width, int height) {
+        reportsChanges = true;
+        if (isGraphical() && frame.isVisible()) {
+            imagePanel.repaint(x * currentZoom, y * currentZoom,
+                    width * currentZoom, height * currentZoom);
+        }
+    }
+
     /**
      * Causes the program to pause for the given amount of time in milliseconds.
      * This allows for animation by calling pause in a loop.
@@ -2267,7 +2299,9 @@ public final class DrawingPanel implements ImageObserver {
             if (millis > 0) {
                 try {
                     Thread.sleep(millis);
-                    panel.repaint();
+                    if (!reportsChanges) {
+                        panel.repaint();
+                    }
                     // toFront(frame);
                 } catch (Exception e) {
                     // empty
@@ -2363,8 +2397,11 @@ public final class DrawingPanel implements ImageObserver {
         // used for an internal timer that keeps repainting
         public void actionPerformed(ActionEvent e) {
             if (e.getSource() instanceof Timer) {
-                // redraw the screen at regular intervals to catch all paint operations
-                panel.repaint();
+                // redraw the screen at regular intervals to catch all paint operations,
+                // unless the drawing code reports what it changes
+                if (!reportsChanges) {
+                    panel.repaint();
+                }
                 if (shouldDiff() &&
                     System.currentTimeMillis() > createTime + 4 * DELAY) {
                     String expected = System.getProperty(DIFF_PROPERTY);
@@ -3247,7 +3284,18 @@ public final class DrawingPanel implements ImageObserver {
             if (currentZoom != 1) {
                 g2.scale(currentZoom, currentZoom);
             }
-            g2.drawImage(image, 0, 0, this);
+            
+            // copy (and scale) only the part of the image inside the area
+            // being repainted, which is one cell for most updates
+            Rectangle clip = g2.getClipBounds();
+            if (clip == null) {
+                g2.drawImage(image, 0, 0, this);
+            } else {
+                int x1 = Math.min(clip.x + clip.width, image.getWidth(this));
+                int y1 = Math.min(clip.y + clip.height, image.getHeight(this));
+                g2.drawImage(image, clip.x, clip.y, x1, y1,
+                        clip.x, clip.y, x1, y1, this);
+            }
             
             // possibly draw grid lines for debugging
             if (gridLines) {
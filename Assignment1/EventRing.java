@@ -0,0 +1,76 @@
+/**
+ * Author :  Robert Sanborn
+ * File :    EventRing
+ * Purpose : CSCI 145, Assignment 1
+ * Date :    1/26/17
+ */
+
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+
+/* Class EventRing
+ *
+ * A lock-free ring buffer of long events with one producer thread and
+ * one consumer thread.
+ *
+ * The producer writes an event into the next slot and then advances
+ * tail with a release store (lazySet); the consumer reads tail, reads
+ * every slot up to it, and then advances head the same way. Each index
+ * is only ever written by one thread, so neither side needs a lock or
+ * a compare-and-set. The producer keeps its own copy of head and only
+ * rereads the shared one when the ring looks full.
+ *
+ * The capacity is a power of two so that a slot is index & mask, and
+ * head and tail count up without wrapping.
+ */
+class EventRing {
+
+    private final long[] slots;
+    private final int mask;
+
+    // The next slot to read, written only by the consumer, and the
+    // next slot to write, written only by the producer
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    // The producer's last look at head
+    private long headSeen;
+
+    /* Create a ring holding at least the given number of events.
+     */
+    EventRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        slots = new long[size];
+        mask = size - 1;
+    }
+
+    /* Add an event. Returns false, adding nothing, if the ring is full.
+     * Only the producer thread may call this.
+     */
+    boolean offer(long event) {
+        long t = tail.get();
+        if (t - headSeen == slots.length) {
+            headSeen = head.get();
+            if (t - headSeen == slots.length) {
+                return false;
+            }
+        }
+        slots[(int) t & mask] = event;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /* Pass every event added so far to consumer, oldest first, and
+     * free their slots. Returns how many there were. Only the consumer
+     * thread may call this.
+     */
+    int drain(LongConsumer consumer) {
+        long h = head.get();
+        long t = tail.get();
+        for (long i = h; i < t; i++) {
+            consumer.accept(slots[(int) i & mask]);
+        }
+        head.lazySet(t);
+        return (int) (t - h);
+    }
+}
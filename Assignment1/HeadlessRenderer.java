@@ -0,0 +1,20 @@
+/**
+ * Author :  Robert Sanborn
+ * File :    HeadlessRenderer
+ * Purpose : CSCI 145, Assignment 1
+ * Date :    1/26/17
+ */
+
+/* Class HeadlessRenderer
+ *
+ * A HidatoRenderer that ignores every update, so that a solve is
+ * bounded by the search alone. Used when Hidato is run headless.
+ */
+public class HeadlessRenderer implements HidatoRenderer {
+
+    public void fillCell(int r, int c, int n) {
+    }
+
+    public void clearCell(int r, int c) {
+    }
+}
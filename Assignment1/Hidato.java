@@ -8,67 +8,162 @@
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 public class Hidato {
 
     // Usage Message
-    static final String usage = "Usage: Hidato input_file_name delay_Time";
+    static final String usage = "Usage: Hidato input_file_name delay_Time|headless"
+            + " [-parallel split_depth] [-count limit] [-async fps]"
+            + " [-fps frames_per_second] [-stats] "
+            + SolveOptions.usage;
 
     // Input file object.
     static File inputFile;
     static int delayTime;
+    static boolean headless;
 
-    static int heightPuzzle;
-    static int widthPuzzle;
-    static int highestNum;
+    // Search on all cores, splitting the tree down to this depth;
+    // -1 for the ordinary sequential search
+    static int parallelDepth = -1;
 
-    static int[][] locationGrid;
-    static int[][] valueTable;
+    // Count the solutions up to this many instead of stopping at the
+    // first; 0 to just solve
+    static long countLimit;
 
-    static int iterations;
+    // Draw on a thread of its own at this many frames a second, so the
+    // drawing never slows the search; 0 to draw as the search goes
+    static int asyncFps;
 
-    static DrawGrid g;
+    // Have DrawGrid itself draw at most this many frames a second,
+    // showing only the latest state; 0 to draw every move
+    static int frameRate;
 
+    // The grid being drawn on, or null when headless
+    static DrawGrid grid;
 
-    public static void main(String[] args) throws FileNotFoundException{
+    // Optional search stages, and whether to report what they cut
+    static SolveOptions options = new SolveOptions();
+    static boolean showStats;
+
+
+    public static void main(String[] args) throws IOException{
         if(!processArgs(args)){
             System.out.println(usage);
+            return;
         }
 
-        readGrid(new Scanner(new File(args[0])));
+        Puzzle puzzle = PuzzleReader.read(inputFile);
 
-        g = new DrawGrid(heightPuzzle,widthPuzzle);
-        g.setDelay(delayTime);
-        for (int row = 0; row < heightPuzzle; row++){
-            for (int col = 0; col < widthPuzzle; col++) {
-                if (locationGrid[row][col] > 0) {
-                    g.fixedCell(row,col,locationGrid[row][col]);
+        HidatoRenderer g;
+        if (headless) {
+            g = new HeadlessRenderer();
+        } else if (asyncFps > 0) {
+            grid = drawPuzzle(puzzle);
+            grid.setDelay(0);
+            g = new AsyncRenderer(grid, puzzle.getHeight(), puzzle.getWidth(),
+                                  asyncFps);
+        } else {
+            grid = drawPuzzle(puzzle);
+            g = grid;
+        }
 
-                } else if (locationGrid[row][col] == 0){
-                    g.valueCell(row, col);
+        HidatoSolver solver = new HidatoSolver(puzzle, g, options);
 
-                } else{
-                    g.emptyCell(row,col);
-                }
-            }
+        if (countLimit > 0) {
+            countSolutions(solver);
+            finishDrawing(g);
+            return;
         }
-        g.draw();
 
+        boolean solved;
+        if (parallelDepth >= 0) {
+            solved = solver.solveParallel(ForkJoinPool.commonPool(),
+                                          parallelDepth);
+            if (solved) {
+                showSolution(solver.getBoard(), g);
+            }
+        } else {
+            solved = solver.solve();
+        }
 
-        if(explore()) {
+        if(solved) {
             System.out.println("The Hidato puzzle has been solved!");
-            System.out.println("It took " + iterations + " steps to solve!");
+            System.out.println("It took " + solver.getIterations() + " steps to solve!");
+            if (headless) {
+                // With no window to look at, the solution is written to stdout
+                System.out.print(solver.getBoard());
+            }
+
+        } else if (solver.getState() == HidatoSearch.TIMEOUT) {
+            System.out.println("The Hidato puzzle has not been solved in time!");
+            System.out.println(solver.getIterations() + " steps have been taken");
+
+        } else if (solver.getState() == HidatoSearch.CANCELLED) {
+            System.out.println("The Hidato puzzle search was cancelled!");
+            System.out.println(solver.getIterations() + " steps have been taken");
 
         } else {
             System.out.println("The Hidato puzzle has not been solved!");
-            System.out.println(iterations + " steps have been taken");
+            System.out.println(solver.getIterations() + " steps have been taken");
+        }
+
+        if (showStats) {
+            System.out.print(solver.getStats());
+        }
+        finishDrawing(g);
+    }
+
+    // Let a render thread catch up with the search and draw the end
+    public static void finishDrawing(HidatoRenderer g){
+        if (g instanceof AsyncRenderer) {
+            AsyncRenderer async = (AsyncRenderer) g;
+            try {
+                async.close();
+            } catch (InterruptedException ex) {
+                return;
+            }
+            if (showStats) {
+                System.out.println("render events:         " + async.getEvents());
+                System.out.println("cells drawn:           " + async.getCellsDrawn());
+                System.out.println("frames drawn:          " + async.getFrames());
+            }
+        }
+        if (grid != null) {
+            grid.flush();
+        }
+    }
+
+
+    // Report how many solutions the puzzle has, up to countLimit
+    public static void countSolutions(HidatoSolver solver){
+        long count = solver.countSolutions(countLimit);
+        int state = solver.getState();
+        if (state == HidatoSearch.TIMEOUT || state == HidatoSearch.CANCELLED) {
+            System.out.println("The search stopped early, after finding "
+                    + count + " solutions!");
+        } else if (count == 0) {
+            System.out.println("The Hidato puzzle has no solution!");
+        } else if (count >= countLimit) {
+            // The search stopped at the limit, so there may be more
+            System.out.println("The Hidato puzzle has at least " + count
+                    + (count == 1 ? " solution!" : " solutions!"));
+        } else if (count == 1) {
+            System.out.println("The Hidato puzzle has a unique solution!");
+        } else {
+            System.out.println("The Hidato puzzle has " + count + " solutions!");
+        }
+        System.out.println(solver.getIterations() + " steps have been taken");
+
+        if (showStats) {
+            System.out.print(solver.getStats());
         }
     }
 
 
     public static boolean processArgs(String[] args){
         // Check for correct number of arguments
-        if (args.length != 2) {
+        if (args.length < 2) {
             System.out.println("Wrong number of command line arguments.");
             System.out.println(usage);
             return false;
@@ -81,195 +176,98 @@ public class Hidato {
             return false;
         }
 
-        try {
-             delayTime = Integer.parseInt(args[1]);
-
-        } catch (NumberFormatException ex) {
-            System.out.println("delay_Time must be an integer.");
-            System.out.println(usage);
-            return false;
-        }
-        return true;
-    }
+        // "headless" solves without ever constructing a DrawGrid
+        if (args[1].equals("headless")) {
+            headless = true;
+        } else {
+            try {
+                 delayTime = Integer.parseInt(args[1]);
 
-    public static void readGrid(Scanner input){
-        String line = input.nextLine();
-        Scanner scan = new Scanner(line);
-
-        heightPuzzle = scan.nextInt();
-        widthPuzzle = scan.nextInt();
-        highestNum = -1;
-
-        locationGrid = new int[heightPuzzle][widthPuzzle];
-        for(int r = 0; r < heightPuzzle; r++){
-            Scanner row = new Scanner(input.nextLine());
-            for (int c = 0; c < widthPuzzle; c++){
-                if (row.hasNext()){
-                    if (row.hasNextInt()){
-                        locationGrid[r][c] = row.nextInt();
-                        if (locationGrid[r][c] > highestNum){
-                            highestNum = locationGrid[r][c];
-                        }
-                    } else if((row.next().equals("x"))) {
-                        locationGrid[r][c] = -1;
-                    }
-                }
+            } catch (NumberFormatException ex) {
+                System.out.println("delay_Time must be an integer.");
+                System.out.println(usage);
+                return false;
             }
         }
 
-        valueTable = new int[highestNum][2];
-        for(int r = 0; r < heightPuzzle; r++) {
-            for (int c = 0; c < widthPuzzle; c++) {
-                if (locationGrid[r][c] > 0) {
-                    valueTable[locationGrid[r][c] - 1][0] = r;
-                    valueTable[locationGrid[r][c] - 1][1] = c;
+        // Any remaining arguments are options
+        for (int i = 2; i < args.length; i++) {
+            int used = options.parse(args, i);
+            if (used > 0) {
+                i += used - 1;
+            } else if (args[i].equals("-stats")) {
+                showStats = true;
+            } else if (args[i].equals("-async") && i + 1 < args.length) {
+                try {
+                    asyncFps = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException ex) {
+                    System.out.println("fps must be an integer.");
+                    return false;
                 }
-            }
-        }
-
-        for (int[] value: valueTable){
-            if (value[0] == 0 && value[1] == 0){
-                value[0] = -1;
-                value[1] = -1;
-            }
-        }
-
-        if (locationGrid[0][0] > 0){
-            valueTable[locationGrid[0][0] -1][0] = 0;
-            valueTable[locationGrid[0][0] -1][1] = 0;
-        }
-
-
-    }
-
-    public static boolean explore(){
-        iterations++;
-
-        // Find the next missing value, that is, the next number that
-        // has not already been placed in the grid
-        int next = findMissingValue();
-
-        // If no missing value was found, we’ve succeeded. Return
-        // true indicating success
-        if (next == -1) {
-            return true;
-        }
-
-        // Find the next known value. That is, the next value already
-        // placed in the grid
-        int end = findNextValue(next);
-
-        // start is the value prior to next. This value is guaranteed
-        // to have already been placed in the grid
-        int start = next - 1;
-
-//        System.out.println(next + " " + end + " " + start);
-
-        // Loop through the eight possible adjacent locations
-        // to the location of start
-
-        for (int nextLoc[]: adjacentCells(start)) {
-
-            // Test to see if nextLoc is a viable location for
-            // the value next. There are three conditions that
-            // must be satisfied:
-            //   1. nextLoc must actually be inside the
-            //   2. the grid cell at nextLoc must be available
-            //      to have next placed there
-            //   3. the grid distance from nextLoc to the grid
-            //      location of end must not be too great
-
-            if ( (nextLoc[0] >= 0 && nextLoc[0] < heightPuzzle) &&
-                    (nextLoc[1] >= 0 && nextLoc[1] < widthPuzzle) &&
-                    (locationGrid[nextLoc[0]][nextLoc[1]] == 0) &&
-                    (distance(nextLoc, valueTable[end-1]) <= end - next) ) {
-
-
-                // Assuming that everything looks good place
-                // next at nextLoc and explore again
-                place(nextLoc, next);
-
-
-                if (explore()) {
-                    // The search succeeded, return true
-                    return true;
+            } else if (args[i].equals("-fps") && i + 1 < args.length) {
+                try {
+                    frameRate = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException ex) {
+                    System.out.println("frames_per_second must be an integer.");
+                    return false;
                 }
-
-                // The search did not succeed, remove next from
-                // nextLoc and try the next adjacent cell
-                remove(nextLoc, next);
-            }
-
-        }
-        // At this point we have failed, return false indicating failure
-        return false;
-    }
-
-    public static int findMissingValue(){
-
-        for(int index = 0; index < valueTable.length; index++){
-            if(valueTable[index][0] == -1){
-                return index + 1;
+            } else if (args[i].equals("-count") && i + 1 < args.length) {
+                try {
+                    countLimit = Long.parseLong(args[++i]);
+                } catch (NumberFormatException ex) {
+                    System.out.println("limit must be an integer.");
+                    return false;
+                }
+            } else if (args[i].equals("-parallel") && i + 1 < args.length) {
+                try {
+                    parallelDepth = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException ex) {
+                    System.out.println("split_depth must be an integer.");
+                    return false;
+                }
+            } else {
+                System.out.println("Unknown option " + args[i]);
+                return false;
             }
         }
-        return -1;
+        return true;
     }
 
-    public static int findNextValue(int next){
-        for(int index = next; index < valueTable.length; index++){
-            if(valueTable[index][0] != -1){
-                return index + 1;
+    // The parallel search works on copies of the board, so its moves
+    // are never drawn; show the solution it found instead.
+    public static void showSolution(Board board, HidatoRenderer g){
+        Puzzle puzzle = board.getPuzzle();
+        for (int cell = 0; cell < board.cells(); cell++) {
+            if (puzzle.givenAt(cell) == 0 && board.valueAt(cell) > 0) {
+                g.fillCell(board.row(cell), board.col(cell),
+                           board.valueAt(cell));
             }
         }
-        return -1;
     }
 
-    public static int[][] adjacentCells(int start){
-        int[] startCoordinate = valueTable[start -1];
-
-        int[][] possibleCoordinates = new int[8][2];
+    // Kept out of main so that a headless run never constructs a
+    // DrawGrid. The verifier may still load the DrawGrid class itself,
+    // but AWT and Swing are only loaded when the puzzle is drawn.
+    public static DrawGrid drawPuzzle(Puzzle puzzle){
+        DrawGrid grid = new DrawGrid(puzzle.getHeight(),puzzle.getWidth());
+        grid.setDelay(delayTime);
+        grid.setFrameRate(frameRate);
+        for (int row = 0; row < puzzle.getHeight(); row++){
+            for (int col = 0; col < puzzle.getWidth(); col++) {
+                int value = puzzle.givenAt(row * puzzle.getWidth() + col);
+                if (value > 0) {
+                    grid.fixedCell(row,col,value);
+
+                } else if (value == 0){
+                    grid.valueCell(row, col);
 
-        int i = 0;
-        for(int[] coordinate: possibleCoordinates){
-            coordinate[0] = (startCoordinate[0]
-                    + (int)Math.round(Math.cos(Math.PI/4 * i)));
-
-            coordinate[1] = (startCoordinate[1]
-                    + (int)Math.round(Math.sin(Math.PI/4 * i)));
-
-            i++;
+                } else{
+                    grid.emptyCell(row,col);
+                }
+            }
         }
-
-//        System.out.println(Arrays.deepToString(possibleCoordinates));
-        return possibleCoordinates;
-    }
-
-    public static int distance(int[] initialLoc, int[] endLoc){
-        return Math.max(Math.abs(initialLoc[0] - endLoc[0]),
-                        Math.abs(initialLoc[1] - endLoc[1]));
-    }
-
-
-
-    public static void place(int[] nextLoc, int next){
-        locationGrid[nextLoc[0]][nextLoc[1]] = next;
-
-        valueTable[next-1][0] = nextLoc[0];
-        valueTable[next-1][1] = nextLoc[1];
-
-        g.fillCell(nextLoc[0], nextLoc[1], next);
-//        System.out.println(nextLoc[0] + " " + nextLoc[1] + " " + next + " " + " place");
-
-    }
-
-    public static void remove(int[] nextLoc, int next){
-        locationGrid[nextLoc[0]][nextLoc[1]] = 0;
-
-        valueTable[next-1][0] = -1;
-        valueTable[next-1][1] = -1;
-
-        g.clearCell(nextLoc[0], nextLoc[1]);
-//        System.out.println(nextLoc[0] + " " + nextLoc[1] + " " + next+ " remove");
+        grid.draw();
+        return grid;
     }
 
 }
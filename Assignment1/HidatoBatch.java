@@ -0,0 +1,326 @@
+/**
+ * Author :  Robert Sanborn
+ * File :    HidatoBatch
+ * Purpose : CSCI 145, Assignment 1
+ * Date :    1/26/17
+ */
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/* Class HidatoBatch
+ *
+ * Solves many Hidato puzzles in one run, headless:
+ *
+ *   java HidatoBatch input [-threads n] [-format csv|json] [-out file]
+ *
+ * input is either a directory, in which case every .txt file in it is
+ * a puzzle, or a single file holding one or more puzzles one after
+ * another. Puzzles from a multi-puzzle file are named file#1, file#2
+ * and so on. A puzzle in such a file that cannot be read gets an ERROR
+ * record, and reading goes on from the next blank line or the next
+ * line that looks like a height and width.
+ *
+ * Puzzles are solved on a pool of threads (one per core unless -threads
+ * says otherwise), all sharing one JVM. As each puzzle finishes, one
+ * record is written with its name, status, steps, solve time in
+ * milliseconds and solution grid, either as a CSV row or as one line
+ * of JSON (NDJSON). Records come out in the order the puzzles finish,
+ * and are written while later puzzles are still being read; at most two
+ * puzzles per thread are read ahead of the records written.
+ * The status is SOLVED, UNSOLVED, TIMEOUT if the puzzle ran out of the
+ * -steps or -time budget, or ERROR if it could not be read or the
+ * solver failed on it.
+ */
+public class HidatoBatch {
+
+    static final String usage = "Usage: HidatoBatch input_dir_or_file"
+            + " [-threads n] [-format csv|json] [-out output_file] "
+            + SolveOptions.usage;
+
+    static File input;
+    static int threads = Runtime.getRuntime().availableProcessors();
+    static boolean json = false;
+    static File output;
+    static SolveOptions options = new SolveOptions();
+
+    public static void main(String[] args)
+            throws IOException, InterruptedException {
+        if (!processArgs(args)) {
+            System.out.println(usage);
+            return;
+        }
+
+        PrintStream out = (output == null) ? System.out
+                : new PrintStream(new BufferedOutputStream(
+                        new FileOutputStream(output)), false, "UTF-8");
+        if (!json) {
+            out.println("puzzle,status,steps,millis,solution");
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CompletionService<String> results =
+                new ExecutorCompletionService<String>(pool);
+        int readAhead = 2 * threads;
+
+        long start = System.nanoTime();
+        int submitted = 0;
+        int written = 0;
+        try {
+            if (input.isDirectory()) {
+                File[] files = input.listFiles();
+                Arrays.sort(files);
+                for (File file : files) {
+                    if (file.isFile() && file.getName().endsWith(".txt")) {
+                        results.submit(solveFile(file));
+                        submitted++;
+                        written += writeFinished(results, out,
+                                submitted - written - readAhead);
+                    }
+                }
+            } else {
+                // Each puzzle is read here, in file order, and solved on
+                // the pool
+                InputStream in = new FileInputStream(input);
+                PuzzleReader reader = new PuzzleReader(in);
+                while (reader.hasPuzzle()) {
+                    String name = input.getName() + "#" + (submitted + 1);
+                    Puzzle puzzle;
+                    try {
+                        puzzle = reader.read();
+                    } catch (RuntimeException ex) {
+                        // Record it and go on with the next puzzle
+                        results.submit(failure(name));
+                        submitted++;
+                        reader.skipPuzzle();
+                        continue;
+                    }
+                    results.submit(solvePuzzle(name, puzzle));
+                    submitted++;
+                    written += writeFinished(results, out,
+                            submitted - written - readAhead);
+                }
+                in.close();
+            }
+            written += writeFinished(results, out, submitted - written);
+        } finally {
+            pool.shutdown();
+        }
+        out.flush();
+
+        System.err.printf("%d puzzles in %.1f ms on %d threads%n",
+                submitted, (System.nanoTime() - start) / 1e6, threads);
+        if (output != null) {
+            out.close();
+        }
+    }
+
+    // Write the record of every puzzle that has finished, first waiting
+    // for at least wait of them to finish. Returns the number written.
+    static int writeFinished(CompletionService<String> results,
+                             PrintStream out, int wait)
+            throws InterruptedException {
+        int written = 0;
+        while (true) {
+            Future<String> done = (written < wait) ? results.take()
+                    : results.poll();
+            if (done == null) {
+                return written;
+            }
+            try {
+                out.println(done.get());
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException(ex.getCause());
+            }
+            written++;
+        }
+    }
+
+    public static boolean processArgs(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Wrong number of command line arguments.");
+            return false;
+        }
+        input = new File(args[0]);
+        if (!input.canRead()) {
+            System.out.println("The file " + args[0]
+                    + " cannot be opened for input.");
+            return false;
+        }
+
+        for (int i = 1; i < args.length; i++) {
+            int used = options.parse(args, i);
+            if (used > 0) {
+                i += used - 1;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                System.out.println("Missing value for " + args[i]);
+                return false;
+            }
+            String option = args[i];
+            String value = args[++i];
+            if (option.equals("-threads")) {
+                try {
+                    threads = Integer.parseInt(value);
+                } catch (NumberFormatException ex) {
+                    System.out.println("-threads must be an integer.");
+                    return false;
+                }
+                if (threads < 1) {
+                    System.out.println("-threads must be at least 1.");
+                    return false;
+                }
+            } else if (option.equals("-format")) {
+                if (!value.equals("csv") && !value.equals("json")) {
+                    System.out.println("-format must be csv or json.");
+                    return false;
+                }
+                json = value.equals("json");
+            } else if (option.equals("-out")) {
+                output = new File(value);
+            } else {
+                System.out.println("Unknown option " + option);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static Callable<String> solveFile(final File file) {
+        return new Callable<String>() {
+            public String call() {
+                Puzzle puzzle;
+                try {
+                    puzzle = PuzzleReader.read(file);
+                } catch (IOException | RuntimeException ex) {
+                    return record(file.getName(), "ERROR", 0, 0, null);
+                }
+                return solve(file.getName(), puzzle);
+            }
+        };
+    }
+
+    static Callable<String> solvePuzzle(final String name,
+                                        final Puzzle puzzle) {
+        return new Callable<String>() {
+            public String call() {
+                return solve(name, puzzle);
+            }
+        };
+    }
+
+    static Callable<String> failure(final String name) {
+        return new Callable<String>() {
+            public String call() {
+                return record(name, "ERROR", 0, 0, null);
+            }
+        };
+    }
+
+    static String solve(String name, Puzzle puzzle) {
+        long start = System.nanoTime();
+        try {
+            HidatoSolver solver = new HidatoSolver(puzzle,
+                    new HeadlessRenderer(), options);
+            boolean solved = solver.solve();
+            double millis = (System.nanoTime() - start) / 1e6;
+            String status = solved ? "SOLVED" : "UNSOLVED";
+            if (solver.getState() == HidatoSearch.TIMEOUT) {
+                status = "TIMEOUT";
+            } else if (solver.getState() == HidatoSearch.CANCELLED) {
+                status = "CANCELLED";
+            }
+            return record(name, status,
+                    solver.getIterations(), millis,
+                    solved ? solver.getBoard() : null);
+        } catch (RuntimeException ex) {
+            // A puzzle the solver cannot handle must not stop the batch
+            return record(name, "ERROR", 0,
+                    (System.nanoTime() - start) / 1e6, null);
+        }
+    }
+
+    // One output record, as a CSV row or a JSON object
+    static String record(String name, String status, long steps,
+                         double millis, Board solution) {
+        StringBuilder text = new StringBuilder();
+        if (json) {
+            text.append("{\"puzzle\":").append(jsonString(name));
+            text.append(",\"status\":\"").append(status).append('"');
+            text.append(",\"steps\":").append(steps);
+            text.append(",\"millis\":")
+                .append(String.format(Locale.ROOT, "%.3f", millis));
+            text.append(",\"solution\":");
+            if (solution == null) {
+                text.append("null");
+            } else {
+                text.append('[');
+                for (int row = 0; row < solution.height; row++) {
+                    text.append(row == 0 ? "[" : ",[");
+                    for (int col = 0; col < solution.width; col++) {
+                        int value = solution.valueAt(row * solution.width + col);
+                        if (col > 0) {
+                            text.append(',');
+                        }
+                        // null for a wall, 0 for a cell left free
+                        text.append(value == Board.WALL ? "null"
+                                : Integer.toString(value));
+                    }
+                    text.append(']');
+                }
+                text.append(']');
+            }
+            text.append('}');
+        } else {
+            text.append(csvString(name)).append(',').append(status);
+            text.append(',').append(steps);
+            text.append(',').append(String.format(Locale.ROOT, "%.3f", millis));
+            text.append(',');
+            if (solution != null) {
+                // Rows separated by '/', cells by spaces, 'x' for walls
+                // and '.' for cells left free, as in Board.toString()
+                for (int row = 0; row < solution.height; row++) {
+                    if (row > 0) {
+                        text.append('/');
+                    }
+                    for (int col = 0; col < solution.width; col++) {
+                        int value = solution.valueAt(row * solution.width + col);
+                        if (col > 0) {
+                            text.append(' ');
+                        }
+                        if (value > 0) {
+                            text.append(value);
+                        } else {
+                            text.append(value == Board.WALL ? 'x' : '.');
+                        }
+                    }
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    static String csvString(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    static String jsonString(String value) {
+        StringBuilder text = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"' || ch == '\\') {
+                text.append('\\').append(ch);
+            } else if (ch < ' ') {
+                text.append(String.format("\\u%04x", (int) ch));
+            } else {
+                text.append(ch);
+            }
+        }
+        return text.append('"').toString();
+    }
+}
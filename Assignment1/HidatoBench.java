@@ -0,0 +1,147 @@
+/**
+ * Author :  Robert Sanborn
+ * File :    HidatoBench
+ * Purpose : CSCI 145, Assignment 1
+ * Date :    1/26/17
+ */
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/* Class HidatoBench
+ *
+ * Times the solver on a set of puzzle files, headless, and prints one
+ * line per puzzle:
+ *
+ *   java HidatoBench [-runs n] [-split depth] [solver options] hidtest1.txt ...
+ *
+ * Each puzzle is solved a few times first so the JIT has compiled the
+ * search, then runs more times; the median time is reported.
+ *
+ * With -parse it instead times reading the files, already loaded into
+ * memory, with Puzzle.read(Scanner) against PuzzleReader.
+ */
+public class HidatoBench {
+
+    static final String usage = "Usage: HidatoBench [-runs n]"
+            + " [-split depth] [-parse] " + SolveOptions.usage
+            + " input_file_name ...";
+
+    static int runs = 9;
+    static int splitDepth = 4;
+    static boolean parse = false;
+    static SolveOptions options = new SolveOptions();
+
+    public static void main(String[] args) throws IOException {
+        List<File> files = new ArrayList<File>();
+        for (int i = 0; i < args.length; i++) {
+            int used = options.parse(args, i);
+            if (used > 0) {
+                i += used - 1;
+            } else if (args[i].equals("-runs") && i + 1 < args.length) {
+                runs = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-split") && i + 1 < args.length) {
+                splitDepth = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-parse")) {
+                parse = true;
+            } else {
+                files.add(new File(args[i]));
+            }
+        }
+        if (files.isEmpty()) {
+            System.out.println(usage);
+            return;
+        }
+
+        if (parse) {
+            benchParse(files);
+            return;
+        }
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        System.out.println("threads: " + pool.getParallelism()
+                + ", split depth: " + splitDepth);
+        System.out.printf("%-16s %12s %10s %12s %10s %8s%n", "puzzle",
+                "seq steps", "seq ms", "par steps", "par ms", "speedup");
+
+        for (File file : files) {
+            final Puzzle puzzle = Puzzle.read(new Scanner(file));
+
+            final long[] steps = new long[2];
+            double sequential = time(new Runnable() {
+                public void run() {
+                    HidatoSolver solver = new HidatoSolver(puzzle,
+                            new HeadlessRenderer(), options);
+                    solver.solve();
+                    steps[0] = solver.getIterations();
+                }
+            });
+            final ForkJoinPool workers = pool;
+            double parallel = time(new Runnable() {
+                public void run() {
+                    HidatoSolver solver = new HidatoSolver(puzzle,
+                            new HeadlessRenderer(), options);
+                    solver.solveParallel(workers, splitDepth);
+                    steps[1] = solver.getIterations();
+                }
+            });
+
+            System.out.printf("%-16s %12d %10.3f %12d %10.3f %7.2fx%n",
+                    file.getName(), steps[0], sequential, steps[1], parallel,
+                    sequential / parallel);
+        }
+    }
+
+    // Reading puzzles is too quick to time one at a time, so each run
+    // reads every file 1000 times
+    static void benchParse(List<File> files) throws IOException {
+        System.out.printf("%-16s %12s %12s %8s%n", "puzzle",
+                "scanner us", "reader us", "speedup");
+
+        for (File file : files) {
+            final byte[] text = Files.readAllBytes(file.toPath());
+            final int repeats = 1000;
+
+            double scanner = time(new Runnable() {
+                public void run() {
+                    for (int i = 0; i < repeats; i++) {
+                        Puzzle.read(new Scanner(
+                                new ByteArrayInputStream(text), "UTF-8"));
+                    }
+                }
+            });
+            double reader = time(new Runnable() {
+                public void run() {
+                    try {
+                        for (int i = 0; i < repeats; i++) {
+                            new PuzzleReader(
+                                    new ByteArrayInputStream(text)).read();
+                        }
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }
+            });
+
+            System.out.printf("%-16s %12.2f %12.2f %7.2fx%n", file.getName(),
+                    scanner, reader, scanner / reader);
+        }
+    }
+
+    // Median wall time of one run in milliseconds, after warming up
+    static double time(Runnable solve) {
+        for (int i = 0; i < runs; i++) {
+            solve.run();
+        }
+        double[] times = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            solve.run();
+            times[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(times);
+        return times[runs / 2];
+    }
+}
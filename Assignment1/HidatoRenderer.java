@@ -0,0 +1,28 @@
+/**
+ * Author :  Robert Sanborn
+ * File :    HidatoRenderer
+ * Purpose : CSCI 145, Assignment 1
+ * Date :    1/26/17
+ */
+
+/* Interface HidatoRenderer
+ *
+ * Receives the placements and removals made while a Hidato puzzle
+ * is being searched. DrawGrid implements this to animate the search,
+ * HeadlessRenderer implements it to discard every update.
+ *
+ * Keeping the search behind this interface means a headless solve
+ * never constructs a DrawGrid. The verifier may still load the
+ * DrawGrid class itself, but no AWT or Swing class is loaded.
+ */
+public interface HidatoRenderer {
+
+    /* The value n has been placed in the cell at (r, c).
+     */
+    void fillCell(int r, int c, int n);
+
+    /* The value previously placed in the cell at (r, c) has been
+     * removed.
+     */
+    void clearCell(int r, int c);
+}
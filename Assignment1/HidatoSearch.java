@@ -0,0 +1,797 @@
+/**
+ * Author :  Robert Sanborn
+ * File :    HidatoSearch
+ * Purpose : CSCI 145, Assignment 1
+ * Date :    1/26/17
+ */
+
+import java.util.concurrent.atomic.*;
+
+/* Class HidatoSearch
+ *
+ * Depth first search for a Hidato solution, run off an explicit stack
+ * instead of the Java call stack.
+ *
+ * By default it makes exactly the moves the recursive explore() made:
+ * each level of the stack is one explore() call. A level holds the
+ * value it is placing, the placed cell whose neighbors it tries (the
+ * cell of value - 1, or of value + 1 when a run of missing values is
+ * filled from its top end), a bit mask of which of those neighbors are
+ * viable and a cursor through them.
+ * The stack is a few int arrays, so its depth is limited only by the
+ * size of the puzzle. Every change to the board, and to any state kept
+ * alongside it, goes through a Trail; a level records a mark on the
+ * trail when it is entered and again before each cell it tries, and
+ * backtracking is undoing the trail back to one of those marks.
+ *
+ * The search can be stopped after any number of steps with run(steps),
+ * looked at with depth(), valueAt(level) and cellAt(level), and picked
+ * up again by calling run again. It can also be given a shared cancel
+ * flag, which stops it for good as soon as the flag is set, and a
+ * budget of steps or of time, which stops it for good once spent (see
+ * SolveOptions). After a
+ * solution, resume() lets the search carry on to the next one, and
+ * split() hands part of what is left to a new search.
+ *
+ * SolveOptions turns on the optional stages; what they cut is counted
+ * in getStats().
+ */
+public class HidatoSearch {
+
+    // Values returned by run and state
+    public static final int PAUSED = 0;
+    public static final int SOLVED = 1;
+    public static final int FAILED = 2;
+    public static final int CANCELLED = 3;
+    public static final int TIMEOUT = 4;
+
+    // Without the optional stages the clock is read once every this
+    // many steps plus one
+    private static final long CLOCK_MASK = 1023;
+
+    private final Board board;
+    private final HidatoRenderer renderer;
+    private final SolveOptions options;
+    private final SearchStats stats = new SearchStats();
+
+    private final Reachability reach;
+    private final RegionCheck regions;
+    private final DeadEndCheck deadEnds;
+    private final DomainPropagator domains;
+    private final TranspositionTable table;
+
+    // The Zobrist hash of the board, kept only if there is a table. It
+    // is in an array so that it can be set through the trail.
+    private final long[] hash = new long[1];
+
+    private final Trail trail = new Trail();
+
+    // The stack. Level i is placing frameValue[i] in one of the
+    // neighbors of frameAnchor[i]. Bit k of frameMask[i] is set if the
+    // k-th entry of the anchor's neighbor table is viable, and
+    // frameCursor[i] is the next entry to try. frameCell[i] is where
+    // frameValue[i] is currently placed, or Board.NONE.
+    private final int[] frameValue;
+    private final int[] frameAnchor;
+    private final int[] frameMask;
+    private final int[] frameCursor;
+    private final int[] frameCell;
+    private int depth;
+
+    // The trail marks of level i: frameMark[i] from when it was
+    // entered, and frameTry[i] from after it had placed the values
+    // propagation forced, before it tried any cell. Undoing to
+    // frameTry[i] takes off the cell being tried; undoing to
+    // frameMark[i] the forced values as well.
+    private final int[] frameMark;
+    private final int[] frameTry;
+
+    // In bidirectional order, no value below frameLow[i] was missing
+    // when level i was entered, so neither level i nor any level under
+    // it need look below it for the lowest missing value
+    private final int[] frameLow;
+
+    // The hash of the board when level i was entered and the step count
+    // then, to store in the table if the level fails
+    private final long[] frameKey;
+    private final long[] frameSteps;
+
+    // Levels below this one have had a solution found under them since
+    // they were entered, so must not be stored as failed
+    private int solvedDepth;
+
+    // If rootValue is not 0, the first level places it next to
+    // rootAnchor, trying only the cells in rootMask (see split)
+    private int rootValue;
+    private int rootAnchor;
+    private int rootMask;
+
+    // Set when a new level is to be entered. In sequential and
+    // bidirectional order it fills the lowest missing value >= enterFrom
+    private boolean entering;
+    private int enterFrom;
+
+    private int state;
+    private long iterations;
+
+    private AtomicBoolean cancelFlag;
+
+    // The budgets: the step count and System.nanoTime() at which the
+    // search times out, or 0 for none
+    private long maxSteps;
+    private long deadline;
+
+    // When the clock is read: every step once any of the optional
+    // stages is on, as a step can then cost far more than reading the
+    // clock, and every CLOCK_MASK + 1 steps otherwise
+    private final long clockMask;
+
+    /* Create a search of the whole puzzle.
+     */
+    public HidatoSearch(Board board, HidatoRenderer renderer) {
+        this(board, renderer, new SolveOptions(), 1);
+    }
+
+    /* Create a search that carries on from a partly filled board.
+     *
+     * Pre: every value below from is on the board and every value from
+     *   from up is on the board only if it was given.
+     */
+    public HidatoSearch(Board board, HidatoRenderer renderer,
+                        SolveOptions options, int from) {
+        this.board = board;
+        this.renderer = renderer;
+        this.options = options;
+        this.reach = options.reachability ? new Reachability(board) : null;
+        this.regions = options.regions ? new RegionCheck(board) : null;
+        this.deadEnds = options.deadEnds ? new DeadEndCheck(board) : null;
+        this.domains = options.domains || options.hiddenSingles
+                || options.matching
+                ? new DomainPropagator(board, options.hiddenSingles,
+                                       options.matching) : null;
+        this.maxSteps = options.maxSteps;
+        this.clockMask = reach != null || regions != null || deadEnds != null
+                || domains != null ? 0 : CLOCK_MASK;
+        this.table = options.tableSize > 0
+                ? new TranspositionTable(board.puzzle, options.tableSize)
+                : null;
+
+        int levels = board.highestNum + 1;
+        frameValue = new int[levels];
+        frameAnchor = new int[levels];
+        frameMask = new int[levels];
+        frameCursor = new int[levels];
+        frameCell = new int[levels];
+        frameMark = new int[levels];
+        frameTry = new int[levels];
+        frameLow = new int[levels];
+        frameKey = new long[levels];
+        frameSteps = new long[levels];
+        if (table != null) {
+            hash[0] = hashBoard();
+        }
+
+        // Show each value the trail takes off the board
+        trail.setListener(new Trail.Listener() {
+            public void restored(Object array, int cell) {
+                if (array == board.cellValue) {
+                    redraw(cell);
+                }
+            }
+        });
+
+        depth = 0;
+        entering = true;
+        enterFrom = from;
+        state = PAUSED;
+    }
+
+    /* Stop the search with state CANCELLED once cancelFlag is set. The
+     * flag is checked each time a step is taken.
+     */
+    public void setCancelFlag(AtomicBoolean cancelFlag) {
+        this.cancelFlag = cancelFlag;
+    }
+
+    /* Time out once System.nanoTime() reaches deadline; 0 for never.
+     * Without the optional stages the clock is read every 1024 steps,
+     * so the search may run a little past it; with any of them on it
+     * is read at every step.
+     */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /* Time out after this many steps in all; 0 for no limit.
+     */
+    public void setMaxSteps(long maxSteps) {
+        this.maxSteps = maxSteps;
+    }
+
+    public int state() {
+        return state;
+    }
+
+    /* Number of steps taken so far, counted the way explore() counted
+     * its calls.
+     */
+    public long getIterations() {
+        return iterations;
+    }
+
+    Board getBoard() {
+        return board;
+    }
+
+    public SearchStats getStats() {
+        if (table != null) {
+            stats.tableProbes = table.getProbes();
+            stats.tableHits = table.getHits();
+            stats.tableStores = table.getStores();
+            stats.tableReplacements = table.getReplacements();
+            stats.tableBytes = table.memory();
+        }
+        return stats;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public int valueAt(int level) {
+        return frameValue[level];
+    }
+
+    public int cellAt(int level) {
+        return frameCell[level];
+    }
+
+    /* Carry on past the solution just found. The board keeps the
+     * solution until the next call to run, which backtracks from it to
+     * look for another; once there are no more, run returns FAILED.
+     *
+     * Pre: state() is SOLVED
+     */
+    public void resume() {
+        if (state != SOLVED) {
+            throw new IllegalStateException("No solution to resume from");
+        }
+        state = PAUSED;
+        entering = false;
+        solvedDepth = depth;
+    }
+
+    /* Hand over about half of the cells not yet tried at the shallowest
+     * level that has any left. The new search works on its own copy of
+     * the board, set back to how it was when that level was entered,
+     * and its first level tries just the cells handed over; this search
+     * will no longer try them. Between them the two searches find
+     * exactly the solutions this one would have found. The new search
+     * has the same deadline, and takes half of the steps this one has
+     * left, so splitting never adds to the budgets. Returns null if no
+     * level has an untried cell left.
+     */
+    HidatoSearch split() {
+        for (int level = 0; level < depth; level++) {
+            int untried = frameMask[level] & (-1 << frameCursor[level]);
+            int count = Integer.bitCount(untried);
+            if (count == 0) {
+                continue;
+            }
+
+            // Keep the lower half, give away the rest
+            int given = untried;
+            for (int i = 0; i < count / 2; i++) {
+                given &= given - 1;
+            }
+            frameMask[level] &= ~given;
+
+            // Levels down to this one may have solutions in the part
+            // given away, so they must not be stored as failed
+            solvedDepth = Math.max(solvedDepth, level + 1);
+
+            HidatoSearch other = new HidatoSearch(boardAt(level),
+                    new HeadlessRenderer(), options, 1);
+            other.rootValue = frameValue[level];
+            other.rootAnchor = frameAnchor[level];
+            other.rootMask = given;
+            other.cancelFlag = cancelFlag;
+            other.deadline = deadline;
+            other.maxSteps = 0;
+            if (maxSteps > 0) {
+                // At least one step each, as 0 would mean no limit
+                long left = Math.max(maxSteps - iterations, 2);
+                other.maxSteps = left / 2;
+                maxSteps = iterations + left - left / 2;
+            }
+            return other;
+        }
+        return null;
+    }
+
+    // A copy of the board as it was before level tried its first cell
+    private Board boardAt(int level) {
+        Board copy = new Board(board);
+        for (int i = frameTry[level]; i < trail.mark(); i++) {
+            int cell = trail.indexAt(i);
+            if (trail.arrayAt(i) == board.cellValue && copy.valueAt(cell) > 0) {
+                copy.remove(cell, copy.valueAt(cell));
+            }
+        }
+        return copy;
+    }
+
+    /* Search until the puzzle is solved or shown to have no solution.
+     */
+    public int run() {
+        return run(Long.MAX_VALUE);
+    }
+
+    /* Search for at most the given number of further steps.
+     *
+     * Returns SOLVED, FAILED, CANCELLED or TIMEOUT once the search is
+     * over, or PAUSED if the steps ran out first. A paused search carries on
+     * from where it stopped on the next call.
+     */
+    public int run(long steps) {
+        long limit = iterations + steps;
+        if (limit < 0) {
+            limit = Long.MAX_VALUE;
+        }
+
+        while (state == PAUSED) {
+            if (entering) {
+                if (iterations >= limit) {
+                    return PAUSED;
+                }
+                if (cancelled()) {
+                    state = CANCELLED;
+                    break;
+                }
+                if (timedOut()) {
+                    state = TIMEOUT;
+                    break;
+                }
+                enter();
+                continue;
+            }
+
+            if (depth == 0) {
+                state = FAILED;
+                break;
+            }
+            advance(depth - 1);
+        }
+        return state;
+    }
+
+    private boolean cancelled() {
+        return (cancelFlag != null && cancelFlag.get())
+                || (options.cancelFlag != null && options.cancelFlag.get());
+    }
+
+    private boolean timedOut() {
+        if (maxSteps > 0 && iterations >= maxSteps) {
+            return true;
+        }
+        return deadline != 0 && (iterations & clockMask) == 0
+                && System.nanoTime() - deadline >= 0;
+    }
+
+    // The equivalent of calling explore()
+    private void enter() {
+        entering = false;
+        iterations++;
+        frameMark[depth] = trail.mark();
+
+        // The first level of a search split off from another
+        if (depth == 0 && rootValue != 0) {
+            frameTry[depth] = trail.mark();
+            frameLow[depth] = enterFrom;
+            frameValue[depth] = rootValue;
+            frameAnchor[depth] = rootAnchor;
+            frameMask[depth] = rootMask;
+            frameCursor[depth] = 0;
+            frameCell[depth] = Board.NONE;
+            depth++;
+            return;
+        }
+
+        // A board already searched without success fails again
+        if (table != null) {
+            frameKey[depth] = hash[0];
+            frameSteps[depth] = iterations;
+            if (table.contains(hash[0])) {
+                enterFailed();
+                return;
+            }
+        }
+
+        // Narrow the domains and place the values they force
+        if (domains != null && !propagate()) {
+            enterFailed();
+            return;
+        }
+
+        // Choose the value to place and the cell whose neighbors it
+        // goes in. If every value is placed, we've succeeded.
+        boolean chosen;
+        if (options.order == SolveOptions.Order.CONSTRAINED) {
+            chosen = chooseConstrained();
+        } else if (options.order == SolveOptions.Order.BIDIRECTIONAL) {
+            chosen = chooseBidirectional();
+        } else {
+            chosen = chooseSequential();
+        }
+        if (!chosen) {
+            state = SOLVED;
+            return;
+        }
+
+        frameTry[depth] = trail.mark();
+        frameLow[depth] = enterFrom;
+        frameValue[depth] = chosenValue;
+        frameAnchor[depth] = chosenAnchor;
+        if (depth == 0 && !consistent()) {
+            // The starting board is already impossible
+            frameMask[depth] = 0;
+        } else {
+            frameMask[depth] = chosenMask;
+            stats.reachabilityCuts += chosenReachCuts;
+            stats.domainCuts += chosenDomainCuts;
+        }
+        frameCursor[depth] = 0;
+        frameCell[depth] = Board.NONE;
+        depth++;
+    }
+
+    // Push a level that has nothing to try, so it pops at once
+    private void enterFailed() {
+        frameTry[depth] = trail.mark();
+        frameValue[depth] = 0;
+        frameAnchor[depth] = 0;
+        frameMask[depth] = 0;
+        frameCursor[depth] = 0;
+        frameCell[depth] = Board.NONE;
+        depth++;
+    }
+
+    // Set by the choose methods: the value to place, the placed cell
+    // whose neighbors it goes in, which of those neighbors are viable
+    // and how many more the Chebyshev test alone would have let through
+    private int chosenValue;
+    private int chosenAnchor;
+    private int chosenMask;
+    private int chosenReachCuts;
+    private int chosenDomainCuts;
+
+    // Fill the lowest missing value, from the value below it
+    private boolean chooseSequential() {
+        // Values above enterFrom are on the board only if they were
+        // given or forced
+        int next = board.nextMissing[enterFrom];
+        while (next != Board.NONE && board.isPlaced(next)) {
+            next = board.nextMissing[next + 1];
+        }
+        if (next == Board.NONE) {
+            return false;
+        }
+
+        // next - 1 is already on the board, so try its neighbors
+        int end = board.nextClue[next];
+        if (domains != null) {
+            end = next + 1;
+            while (!board.isPlaced(end)) {
+                end++;
+            }
+        }
+        choose(next, board.cellOf(next - 1),
+               candidates(next, board.cellOf(next - 1), board.cellOf(end),
+                          end - next));
+        return true;
+    }
+
+    // Every run of missing values lies between two placed values a and
+    // b (or runs off the end of the values, if 1 is missing). The run
+    // can be extended forward, placing a + 1 next to a, or backward,
+    // placing b - 1 next to b. Of all these ends pick the one with the
+    // fewest viable cells, the lowest first on a tie.
+    private boolean chooseConstrained() {
+        boolean found = false;
+        int best = Integer.MAX_VALUE;
+
+        int below = 0;
+        for (int value = 1; value <= board.highestNum + 1; value++) {
+            boolean placed = value > board.highestNum || board.isPlaced(value);
+            if (!placed) {
+                continue;
+            }
+            if (value - below > 1) {
+                // value - 1 down to below + 1 are missing
+                int lowCell = below > 0 ? board.cellOf(below) : Board.NONE;
+                int highCell = value <= board.highestNum
+                        ? board.cellOf(value) : Board.NONE;
+                int slack = value - below - 2;
+
+                if (lowCell != Board.NONE) {
+                    int mask = candidates(below + 1, lowCell, highCell,
+                                          slack + 1);
+                    int count = Integer.bitCount(mask);
+                    if (count < best) {
+                        best = count;
+                        found = true;
+                        choose(below + 1, lowCell, mask);
+                    }
+                }
+                if (highCell != Board.NONE && best > 0) {
+                    int mask = candidates(value - 1, highCell, lowCell,
+                                          slack + 1);
+                    int count = Integer.bitCount(mask);
+                    if (count < best) {
+                        best = count;
+                        found = true;
+                        choose(value - 1, highCell, mask);
+                    }
+                }
+                if (best == 0) {
+                    // This end cannot be extended at all
+                    break;
+                }
+            }
+            below = value;
+        }
+        return found;
+    }
+
+    // Fill the lowest run of missing values from whichever end has
+    // grown less since the clue it started from, so that a long run
+    // between two clues is filled from both clues at once and the
+    // halves meet in the middle
+    private boolean chooseBidirectional() {
+        int next = board.nextMissing[enterFrom];
+        while (next != Board.NONE && board.isPlaced(next)) {
+            next = board.nextMissing[next + 1];
+        }
+        if (next == Board.NONE) {
+            return false;
+        }
+        // The levels under this one start looking from here
+        enterFrom = next;
+
+        // below and above are the placed values either side of the run
+        int below = next - 1;
+        int above = next + 1;
+        while (!board.isPlaced(above)) {
+            above++;
+        }
+        int lowCell = below > 0 ? board.cellOf(below) : Board.NONE;
+        int highCell = board.cellOf(above);
+        int slack = above - below - 1;
+
+        int forward = below - board.prevClue[below];
+        int backward = board.nextClue[above] - above;
+        if (lowCell != Board.NONE && forward <= backward) {
+            choose(below + 1, lowCell,
+                   candidates(below + 1, lowCell, highCell, slack));
+        } else {
+            choose(above - 1, highCell,
+                   candidates(above - 1, highCell, lowCell, slack));
+        }
+        return true;
+    }
+
+    private void choose(int value, int anchor, int mask) {
+        chosenValue = value;
+        chosenAnchor = anchor;
+        chosenMask = mask;
+        chosenReachCuts = lastReachCuts;
+        chosenDomainCuts = lastDomainCuts;
+    }
+
+    // Cells the reachability stage and the domains removed in the last
+    // call to candidates
+    private int lastReachCuts;
+    private int lastDomainCuts;
+
+    // The neighbors of anchor that value may be placed in, as a mask
+    // over anchor's entries in the neighbor table. Each must be free
+    // and no more than slack moves from target, the cell of the nearest
+    // placed value on the far side of the missing run (or Board.NONE if
+    // there is none).
+    private int candidates(int value, int anchor, int target, int slack) {
+        int base = board.neighborStart[anchor];
+        int count = board.neighborStart[anchor + 1] - base;
+
+        int mask = 0;
+        for (int k = 0; k < count; k++) {
+            int cell = board.neighbors[base + k];
+            if (board.isFree(cell) && (target == Board.NONE
+                    || board.distance(cell, target) <= slack)) {
+                mask |= 1 << k;
+            }
+        }
+
+        // Now measure the distance around walls and occupied cells
+        lastReachCuts = 0;
+        if (reach != null && mask != 0 && target != Board.NONE) {
+            reach.search(target, slack);
+            for (int k = 0; k < count; k++) {
+                if ((mask & (1 << k)) != 0 &&
+                        reach.distance(board.neighbors[base + k]) > slack) {
+                    mask &= ~(1 << k);
+                    lastReachCuts++;
+                }
+            }
+        }
+
+        // And keep only the cells still in the value's domain
+        lastDomainCuts = 0;
+        if (domains != null) {
+            for (int k = 0; k < count; k++) {
+                if ((mask & (1 << k)) != 0 &&
+                        !domains.contains(value, board.neighbors[base + k])) {
+                    mask &= ~(1 << k);
+                    lastDomainCuts++;
+                }
+            }
+        }
+        return mask;
+    }
+
+    // Move the given level on to its next viable cell, or pop it if
+    // there are none left
+    private void advance(int level) {
+        int next = frameValue[level];
+
+        // Returning here means the search below the last placement failed
+        if (frameCell[level] != Board.NONE) {
+            trail.undo(frameTry[level]);
+            frameCell[level] = Board.NONE;
+        }
+
+        int base = board.neighborStart[frameAnchor[level]];
+        int mask = frameMask[level];
+        int k = frameCursor[level];
+        while ((mask >>> k) != 0) {
+            if ((mask & (1 << k)) != 0) {
+                int nextCell = board.neighbors[base + k];
+                k++;
+                place(nextCell, next);
+                if (consistent(nextCell, next)) {
+                    frameCell[level] = nextCell;
+                    break;
+                }
+                trail.undo(frameTry[level]);
+            } else {
+                k++;
+            }
+        }
+        frameCursor[level] = k;
+
+        if (frameCell[level] == Board.NONE) {
+            // At this point this level has failed
+            trail.undo(frameMark[level]);
+            if (level < solvedDepth) {
+                solvedDepth = level;
+            } else if (table != null) {
+                table.store(frameKey[level], iterations - frameSteps[level]);
+            }
+            depth--;
+        } else {
+            entering = true;
+            if (options.order == SolveOptions.Order.BIDIRECTIONAL) {
+                enterFrom = frameLow[level];
+            } else {
+                enterFrom = next + 1;
+            }
+        }
+    }
+
+    // Narrow the domains and place each value left with one cell.
+    // Returns false if some value has nowhere left to go.
+    private boolean propagate() {
+        if (!domains.propagate()) {
+            stats.hiddenSingles += domains.hiddenCount();
+            stats.matchingCuts += domains.matchingCuts();
+            stats.domainFailures++;
+            return false;
+        }
+        stats.hiddenSingles += domains.hiddenCount();
+        stats.matchingCuts += domains.matchingCuts();
+        for (int i = 0; i < domains.forcedCount(); i++) {
+            int value = domains.forced(i);
+            int cell = domains.forcedCell(value);
+            place(cell, value);
+            stats.forcedPlacements++;
+            if (!consistent(cell, value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Whether the starting board passes the optional stages
+    private boolean consistent() {
+        if (deadEnds != null && !deadEnds.checkAll()) {
+            stats.deadEndCuts++;
+            return false;
+        }
+        if (regions != null && !regions.checkAll()) {
+            stats.regionCuts++;
+            return false;
+        }
+        return true;
+    }
+
+    // Whether the board passes the optional stages now that value has
+    // been placed in cell
+    private boolean consistent(int cell, int value) {
+        // The local check first, as it is the cheaper
+        if (deadEnds != null && !deadEnds.checkAround(cell, value)) {
+            stats.deadEndCuts++;
+            return false;
+        }
+        if (regions != null && !regions.checkAround(cell, value)) {
+            stats.regionCuts++;
+            return false;
+        }
+        return true;
+    }
+
+    private void place(int cell, int value) {
+        if (table != null) {
+            long key = hash[0] ^ runEnds(value);
+            board.place(cell, value, trail);
+            trail.set(hash, 0, key ^ runEnds(value) ^ table.cellKey(cell));
+        } else {
+            board.place(cell, value, trail);
+        }
+        renderer.fillCell(board.row(cell), board.col(cell), value);
+    }
+
+    // Show the cell as the trail has left it
+    private void redraw(int cell) {
+        int value = board.valueAt(cell);
+        if (value > 0) {
+            renderer.fillCell(board.row(cell), board.col(cell), value);
+        } else {
+            renderer.clearCell(board.row(cell), board.col(cell));
+        }
+    }
+
+    // The hash of the board: every cell taken and every run end
+    private long hashBoard() {
+        long key = 0;
+        for (int cell = 0; cell < board.cells(); cell++) {
+            if (board.valueAt(cell) > 0) {
+                key ^= table.cellKey(cell);
+            }
+        }
+        for (int value = 1; value <= board.highestNum; value++) {
+            key ^= runEnd(value);
+        }
+        return key;
+    }
+
+    // The part of the hash that placing or removing value can change
+    private long runEnds(int value) {
+        return runEnd(value - 1) ^ runEnd(value) ^ runEnd(value + 1);
+    }
+
+    // The hash of value and its cell for each side of value that is
+    // missing, or 0 if value is not placed next to a missing value
+    private long runEnd(int value) {
+        if (value < 1 || value > board.highestNum || !board.isPlaced(value)) {
+            return 0;
+        }
+        int cell = board.cellOf(value);
+        long key = 0;
+        if (value > 1 && !board.isPlaced(value - 1)) {
+            key ^= table.lowKey(value, cell);
+        }
+        if (value < board.highestNum && !board.isPlaced(value + 1)) {
+            key ^= table.highKey(value, cell);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ * Author :  Robert Sanborn
+ * File :    HidatoSolver
+ * Purpose : CSCI 145, Assignment 1
+ * Date :    1/26/17
+ */
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.stream.*;
+
+/* Class HidatoSolver
+ *
+ * Solves one Hidato puzzle. Every solver owns its own Board, search
+ * stack and step count and shares nothing but the read-only Puzzle, so
+ * any number of solvers may run at once on different threads:
+ *
+ *   Puzzle puzzle = PuzzleReader.read(new File("hidtest1.txt"));
+ *   HidatoSolver solver = new HidatoSolver(puzzle);
+ *   if (solver.solve()) {
+ *       System.out.print(solver.getBoard());
+ *   }
+ *
+ * countSolutions(limit) carries the same search on past the first
+ * solution, which is how a puzzle is checked to have just one:
+ *
+ *   boolean unique = new HidatoSolver(puzzle).countSolutions(2) == 1;
+ *
+ * and solutions() lists every solution, lazily:
+ *
+ *   new HidatoSolver(puzzle).solutions().parallel().count();
+ *
+ * A single solver is not itself safe to use from more than one thread,
+ * but solveParallel spreads the search for one puzzle over a
+ * ForkJoinPool.
+ */
+public class HidatoSolver {
+
+    private final Puzzle puzzle;
+    private final SolveOptions options;
+    private final Board board;
+    private final HidatoSearch search;
+
+    private long parallelIterations;
+
+    // How solveParallel() ended, or -1 if it has not been run
+    private int parallelState = -1;
+
+    /* Create a solver that does not display its progress.
+     */
+    public HidatoSolver(Puzzle puzzle) {
+        this(puzzle, new HeadlessRenderer());
+    }
+
+    /* Create a solver that reports every placement and removal to
+     * renderer.
+     */
+    public HidatoSolver(Puzzle puzzle, HidatoRenderer renderer) {
+        this(puzzle, renderer, new SolveOptions());
+    }
+
+    /* Create a solver that reports to renderer and searches with the
+     * optional stages turned on in options.
+     */
+    public HidatoSolver(Puzzle puzzle, HidatoRenderer renderer,
+                        SolveOptions options) {
+        this.puzzle = puzzle;
+        this.options = options;
+        this.board = new Board(puzzle);
+        this.search = new HidatoSearch(board, renderer, options, 1);
+    }
+
+    /* Search until the puzzle is solved or shown to have no solution.
+     * Returns true if it was solved.
+     */
+    public boolean solve() {
+        setDeadline();
+        return search.run() == HidatoSearch.SOLVED;
+    }
+
+    /* How the last solve ended: HidatoSearch.SOLVED, FAILED if the
+     * puzzle has no solution, or TIMEOUT or CANCELLED if a budget of
+     * the options stopped it first.
+     */
+    public int getState() {
+        return parallelState >= 0 ? parallelState : search.state();
+    }
+
+    // Start the clock on the time limit, if there is one
+    private void setDeadline() {
+        if (options.timeLimit > 0) {
+            search.setDeadline(deadline());
+        }
+    }
+
+    private long deadline() {
+        if (options.timeLimit <= 0) {
+            return 0;
+        }
+        long deadline = System.nanoTime() + options.timeLimit * 1000000;
+        return deadline == 0 ? 1 : deadline;
+    }
+
+    /* Count the puzzle's solutions, stopping as soon as limit have been
+     * found. The search prunes exactly as solve() does, and only goes
+     * on past each solution instead of stopping, so telling a unique
+     * puzzle from one with two or more solutions costs little more
+     * than solving it. If any solution was found, the board is left
+     * holding the last one.
+     */
+    public long countSolutions(long limit) {
+        setDeadline();
+        long count = 0;
+        while (count < limit && search.run() == HidatoSearch.SOLVED) {
+            count++;
+            if (count < limit) {
+                search.resume();
+            }
+        }
+        return count;
+    }
+
+    /* Every solution of the puzzle, each one found only when the stream
+     * asks for it, as a copy of the board. The stream runs this
+     * solver's own search, so it can be used only once and not
+     * alongside solve() or countSolutions(). A parallel stream splits
+     * the search tree between its threads; each part searches its own
+     * copy of the board, and only the first part's moves reach the
+     * renderer. The clock on the time limit starts when the stream is
+     * created, and the stream ends early once the time or step budget
+     * of the options runs out; the parts of a parallel stream share
+     * both budgets.
+     */
+    public Stream<Board> solutions() {
+        setDeadline();
+        return StreamSupport.stream(new SolutionSpliterator(search), false);
+    }
+
+    /* The solutions of solutions(), one at a time.
+     */
+    public Iterator<Board> solutionIterator() {
+        setDeadline();
+        return Spliterators.iterator(new SolutionSpliterator(search));
+    }
+
+    /* Search using the threads of pool. The search tree is split into
+     * one task per branch down to splitDepth levels, each task with a
+     * copy of the board; every task stops once any of them has found a
+     * solution. Returns true if the puzzle was solved, in which case
+     * the solution is copied onto this solver's board. The renderer is
+     * not told about the tasks' moves.
+     *
+     * When a puzzle has more than one solution, which one is found
+     * depends on the order the tasks happen to run in.
+     */
+    public boolean solveParallel(ForkJoinPool pool, int splitDepth) {
+        AtomicBoolean cancelFlag = new AtomicBoolean(false);
+        AtomicLong steps = new AtomicLong();
+        AtomicInteger stop = new AtomicInteger();
+        Board solution = pool.invoke(new ParallelSearch(new Board(board), 1,
+                splitDepth, options, cancelFlag, steps, deadline(), stop));
+        parallelIterations = steps.get();
+
+        if (solution == null) {
+            parallelState = stop.get() != 0 ? stop.get() : HidatoSearch.FAILED;
+            return false;
+        }
+        parallelState = HidatoSearch.SOLVED;
+        for (int value = 1; value <= solution.highestNum; value++) {
+            if (!board.isPlaced(value)) {
+                board.place(solution.cellOf(value), value);
+            }
+        }
+        return true;
+    }
+
+    public Puzzle getPuzzle() {
+        return puzzle;
+    }
+
+    /* The solver's board: the solution once solve() has returned true.
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    public HidatoSearch getSearch() {
+        return search;
+    }
+
+    /* What the optional stages of solve() cut off.
+     */
+    public SearchStats getStats() {
+        return search.getStats();
+    }
+
+    /* Steps taken by solve(), plus the steps taken by all the tasks of
+     * solveParallel(). Tasks that were cancelled count the steps they
+     * took before stopping.
+     */
+    public long getIterations() {
+        return search.getIterations() + parallelIterations;
+    }
+}
@@ -0,0 +1,316 @@
+/**
+ * Author :  Robert Sanborn
+ * File :    MatchingFilter
+ * Purpose : CSCI 145, Assignment 1
+ * Date :    1/26/17
+ */
+
+import java.util.*;
+
+/* Class MatchingFilter
+ *
+ * The all-different constraint over the domains of a DomainPropagator:
+ * every missing value needs a free cell of its own.
+ *
+ * The missing values and free cells form a bipartite graph, with an
+ * edge wherever a cell is in a value's domain. filter() first finds a
+ * matching that covers every missing value, with Hopcroft-Karp. It
+ * starts from the previous call's matching, keeping every pair that is
+ * still an edge, so usually only a few values need new cells. If no
+ * such matching exists the board has no solution.
+ *
+ * It then takes out of the domains every edge that lies in no such
+ * matching (Regin's filtering). Matched edges stay. An unmatched edge
+ * between value v and cell c could be swapped in if v's cell and c
+ * lie on a cycle that alternates between matched and unmatched edges,
+ * or if c can be freed up by a chain of swaps from an unused cell.
+ * Following an unmatched edge from cell c to value v and on to v's
+ * matched cell gives a directed graph over the free cells. The cycle
+ * case is both cells being in the same strongly connected component,
+ * found with Tarjan's algorithm. The chain case is c being reachable
+ * from an unmatched cell.
+ */
+class MatchingFilter {
+
+    private static final int UNSEEN = -1;
+
+    private final Board board;
+    private final long[][] domain;
+    private final int words;
+
+    // The matching: the cell matched to each value and the value
+    // matched to each cell, or Board.NONE
+    private final int[] valueMate;
+    private final int[] cellMate;
+
+    // Hopcroft-Karp layers and queue, over values
+    private final int[] layer;
+    private final int[] queue;
+
+    // Tarjan's algorithm, over cells. edgeFrom[cell] is the next value
+    // to look at for an edge out of cell.
+    private final int[] index;
+    private final int[] low;
+    private final int[] component;
+    private final boolean[] onStack;
+    private final int[] stack;
+    private final int[] path;
+    private final int[] edgeFrom;
+
+    // Cells reachable from an unmatched cell
+    private final boolean[] reached;
+
+    private int cuts;
+
+    MatchingFilter(Board board, long[][] domain, int words) {
+        this.board = board;
+        this.domain = domain;
+        this.words = words;
+
+        int values = board.highestNum + 1;
+        int cells = board.cells();
+        valueMate = new int[values];
+        cellMate = new int[cells];
+        Arrays.fill(valueMate, Board.NONE);
+        Arrays.fill(cellMate, Board.NONE);
+        layer = new int[values];
+        queue = new int[values];
+
+        index = new int[cells];
+        low = new int[cells];
+        component = new int[cells];
+        onStack = new boolean[cells];
+        stack = new int[cells];
+        path = new int[cells];
+        edgeFrom = new int[cells];
+        reached = new boolean[cells];
+    }
+
+    /* Match the missing values to free cells and take every edge that
+     * lies in no complete matching out of the domains. Returns -1 if
+     * there is no complete matching, 1 if any domain changed and 0 if
+     * not.
+     */
+    int filter() {
+        cuts = 0;
+        if (!match()) {
+            return -1;
+        }
+        components();
+        reach();
+
+        for (int value = 1; value <= board.highestNum; value++) {
+            if (board.isPlaced(value)) {
+                continue;
+            }
+            int mate = valueMate[value];
+            long[] d = domain[value];
+            for (int i = 0; i < words; i++) {
+                long bits = d[i];
+                while (bits != 0) {
+                    int cell = (i << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    if (cell != mate && !reached[cell]
+                            && component[cell] != component[mate]) {
+                        DomainPropagator.clear(d, cell);
+                        cuts++;
+                    }
+                }
+            }
+        }
+        return cuts > 0 ? 1 : 0;
+    }
+
+    /* The number of edges the last filter() took out.
+     */
+    int cuts() {
+        return cuts;
+    }
+
+    // Extend the last matching to cover every missing value, if it can
+    private boolean match() {
+        Arrays.fill(cellMate, Board.NONE);
+        int unmatched = 0;
+        for (int value = 1; value <= board.highestNum; value++) {
+            int mate = valueMate[value];
+            if (board.isPlaced(value)) {
+                valueMate[value] = Board.NONE;
+            } else if (mate != Board.NONE && cellMate[mate] == Board.NONE
+                    && DomainPropagator.has(domain[value], mate)) {
+                cellMate[mate] = value;
+            } else {
+                valueMate[value] = Board.NONE;
+                unmatched++;
+            }
+        }
+
+        while (unmatched > 0) {
+            if (!layer()) {
+                return false;
+            }
+            for (int value = 1; value <= board.highestNum; value++) {
+                if (!board.isPlaced(value) && valueMate[value] == Board.NONE
+                        && augment(value)) {
+                    unmatched--;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Number the values by their distance from an unmatched value along
+    // alternating paths. Returns whether any path reaches an unmatched
+    // cell.
+    private boolean layer() {
+        int head = 0;
+        int tail = 0;
+        for (int value = 1; value <= board.highestNum; value++) {
+            if (!board.isPlaced(value) && valueMate[value] == Board.NONE) {
+                layer[value] = 0;
+                queue[tail++] = value;
+            } else {
+                layer[value] = UNSEEN;
+            }
+        }
+
+        boolean found = false;
+        while (head < tail) {
+            int value = queue[head++];
+            long[] d = domain[value];
+            for (int i = 0; i < words; i++) {
+                long bits = d[i];
+                while (bits != 0) {
+                    int cell = (i << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    int next = cellMate[cell];
+                    if (next == Board.NONE) {
+                        found = true;
+                    } else if (layer[next] == UNSEEN) {
+                        layer[next] = layer[value] + 1;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    // Find an augmenting path from value down the layers and flip it.
+    // The recursion is at most one level per layer, and so never
+    // deeper than the number of missing values.
+    private boolean augment(int value) {
+        long[] d = domain[value];
+        for (int i = 0; i < words; i++) {
+            long bits = d[i];
+            while (bits != 0) {
+                int cell = (i << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int next = cellMate[cell];
+                if (next == Board.NONE || (layer[next] == layer[value] + 1
+                        && augment(next))) {
+                    valueMate[value] = cell;
+                    cellMate[cell] = value;
+                    return true;
+                }
+            }
+        }
+        layer[value] = UNSEEN;
+        return false;
+    }
+
+    // The next cell after an unmatched edge out of cell and the matched
+    // edge after it, looking at values from edgeFrom[cell] up, or
+    // Board.NONE if there are no more
+    private int nextEdge(int cell) {
+        for (int value = edgeFrom[cell]; value <= board.highestNum; value++) {
+            if (!board.isPlaced(value) && valueMate[value] != cell
+                    && DomainPropagator.has(domain[value], cell)) {
+                edgeFrom[cell] = value + 1;
+                return valueMate[value];
+            }
+        }
+        edgeFrom[cell] = board.highestNum + 1;
+        return Board.NONE;
+    }
+
+    // Tarjan's algorithm over the matched cells, run off an explicit
+    // stack. Only cells matched to a value can lie on an alternating
+    // cycle.
+    private void components() {
+        for (int cell = 0; cell < board.cells(); cell++) {
+            index[cell] = UNSEEN;
+            component[cell] = UNSEEN;
+            onStack[cell] = false;
+        }
+
+        int count = 0;
+        int top = 0;
+        for (int root = 0; root < board.cells(); root++) {
+            if (cellMate[root] == Board.NONE || index[root] != UNSEEN) {
+                continue;
+            }
+            int depth = 0;
+            path[depth++] = root;
+            index[root] = low[root] = count++;
+            edgeFrom[root] = 1;
+            stack[top++] = root;
+            onStack[root] = true;
+
+            while (depth > 0) {
+                int cell = path[depth - 1];
+                int next = nextEdge(cell);
+                if (next != Board.NONE) {
+                    if (index[next] == UNSEEN) {
+                        path[depth++] = next;
+                        index[next] = low[next] = count++;
+                        edgeFrom[next] = 1;
+                        stack[top++] = next;
+                        onStack[next] = true;
+                    } else if (onStack[next]) {
+                        low[cell] = Math.min(low[cell], index[next]);
+                    }
+                    continue;
+                }
+
+                // Every edge out of cell has been followed
+                depth--;
+                if (depth > 0) {
+                    int parent = path[depth - 1];
+                    low[parent] = Math.min(low[parent], low[cell]);
+                }
+                if (low[cell] == index[cell]) {
+                    int member;
+                    do {
+                        member = stack[--top];
+                        onStack[member] = false;
+                        component[member] = cell;
+                    } while (member != cell);
+                }
+            }
+        }
+    }
+
+    // Mark the cells reachable from the free cells no value is matched
+    // to
+    private void reach() {
+        int head = 0;
+        int tail = 0;
+        for (int cell = 0; cell < board.cells(); cell++) {
+            reached[cell] = board.isFree(cell) && cellMate[cell] == Board.NONE;
+            if (reached[cell]) {
+                path[tail++] = cell;
+            }
+        }
+        while (head < tail) {
+            int cell = path[head++];
+            edgeFrom[cell] = 1;
+            for (int next = nextEdge(cell); next != Board.NONE;
+                 next = nextEdge(cell)) {
+                if (!reached[next]) {
+                    reached[next] = true;
+                    path[tail++] = next;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * Author :  Robert Sanborn
+ * File :    ParallelSearch
+ * Purpose : CSCI 145, Assignment 1
+ * Date :    1/26/17
+ */
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/* Class ParallelSearch
+ *
+ * A fork/join task that searches one subtree of the Hidato search.
+ *
+ * Down to splitDepth levels below the root each task takes one step
+ * just as HidatoSearch would, then forks one subtask per viable cell
+ * for the value being placed, each with its own copy of the board.
+ * Below that, a task runs an ordinary HidatoSearch on its copy.
+ *
+ * All the tasks of one solve share a cancel flag. The first task to
+ * find a solution sets it, and every other task and search stops at
+ * its next step. The task returns the solved board, or null if its
+ * subtree holds no solution or it was cancelled.
+ *
+ * The budgets of the options hold for the solve as a whole: every
+ * search stops at the shared deadline, and with a step budget each
+ * search runs in chunks of STEP_CHUNK steps, claiming every chunk from
+ * the shared step count before running it, so searches running at the
+ * same time can never take more steps between them than the budget.
+ * The first task to run out sets the cancel flag too, and records in
+ * stop why the solve ended early.
+ */
+class ParallelSearch extends RecursiveTask<Board> {
+
+    private static final long serialVersionUID = 0;
+
+    // Steps a search claims from the shared budget at a time
+    private static final long STEP_CHUNK = 1024;
+
+    private final Board board;
+    private final int from;
+    private final int splitDepth;
+    private final SolveOptions options;
+    private final AtomicBoolean cancelFlag;
+    private final AtomicLong iterations;
+    private final long deadline;
+    private final AtomicInteger stop;
+
+    /* Pre: every value below from is on the board and every value from
+     *   from up is on the board only if it was given.
+     */
+    ParallelSearch(Board board, int from, int splitDepth, SolveOptions options,
+                   AtomicBoolean cancelFlag, AtomicLong iterations,
+                   long deadline, AtomicInteger stop) {
+        this.board = board;
+        this.from = from;
+        this.splitDepth = splitDepth;
+        this.options = options;
+        this.cancelFlag = cancelFlag;
+        this.iterations = iterations;
+        this.deadline = deadline;
+        this.stop = stop;
+    }
+
+    protected Board compute() {
+        if (cancelFlag.get()) {
+            return null;
+        }
+        if (options.cancelFlag != null && options.cancelFlag.get()) {
+            return stopped(HidatoSearch.CANCELLED);
+        }
+
+        if (splitDepth <= 0) {
+            HidatoSearch search = new HidatoSearch(board,
+                    new HeadlessRenderer(), options, from);
+            search.setCancelFlag(cancelFlag);
+            search.setDeadline(deadline);
+            int state = (options.maxSteps > 0) ? runClaimed(search)
+                                               : runAll(search);
+            if (state == HidatoSearch.TIMEOUT) {
+                return stopped(state);
+            }
+            if (state == HidatoSearch.CANCELLED && options.cancelFlag != null
+                    && options.cancelFlag.get()) {
+                return stopped(state);
+            }
+            return solved(state == HidatoSearch.SOLVED);
+        }
+
+        // Take this step here, as HidatoSearch would
+        iterations.incrementAndGet();
+
+        int next = board.nextMissing[from];
+        if (next == Board.NONE) {
+            return solved(true);
+        }
+
+        int end = board.nextClue[next];
+        int endCell = board.cellOf(end);
+        int startCell = board.cellOf(next - 1);
+
+        List<ParallelSearch> subtasks = new ArrayList<ParallelSearch>();
+        for (int i = board.neighborStart[startCell];
+             i < board.neighborStart[startCell + 1]; i++) {
+            int nextCell = board.neighbors[i];
+            if (board.isFree(nextCell) &&
+                    board.distance(nextCell, endCell) <= end - next) {
+                Board copy = new Board(board);
+                copy.place(nextCell, next);
+                subtasks.add(new ParallelSearch(copy, next + 1,
+                        splitDepth - 1, options, cancelFlag, iterations,
+                        deadline, stop));
+            }
+        }
+
+        // Fork all but the first, which this thread searches itself
+        for (int i = subtasks.size() - 1; i > 0; i--) {
+            subtasks.get(i).fork();
+        }
+
+        Board solution = null;
+        for (int i = 0; i < subtasks.size(); i++) {
+            Board result = (i == 0) ? subtasks.get(i).compute()
+                                    : subtasks.get(i).join();
+            if (solution == null) {
+                solution = result;
+            }
+        }
+        return solution;
+    }
+
+    // Run search to the end, and count its steps once it is over
+    private int runAll(HidatoSearch search) {
+        int state = search.run();
+        iterations.addAndGet(search.getIterations());
+        return state;
+    }
+
+    // Run search a chunk at a time, claiming each chunk from the shared
+    // step count first and handing back what it did not use. Returns
+    // TIMEOUT once the chunks claimed by all the searches reach the
+    // budget.
+    private int runClaimed(HidatoSearch search) {
+        while (true) {
+            long before = iterations.getAndAdd(STEP_CHUNK);
+            long steps = Math.min(STEP_CHUNK, options.maxSteps - before);
+            if (steps <= 0) {
+                iterations.addAndGet(-STEP_CHUNK);
+                return HidatoSearch.TIMEOUT;
+            }
+            long start = search.getIterations();
+            int state = search.run(steps);
+            iterations.addAndGet(search.getIterations() - start - STEP_CHUNK);
+            if (state != HidatoSearch.PAUSED) {
+                return state;
+            }
+        }
+    }
+
+    // The solve has run out of budget or been cancelled: stop every task
+    private Board stopped(int state) {
+        stop.compareAndSet(0, state);
+        cancelFlag.set(true);
+        return null;
+    }
+
+    private Board solved(boolean found) {
+        if (found) {
+            cancelFlag.set(true);
+            return board;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,225 @@
+/**
+ * Author :  Robert Sanborn
+ * File :    Puzzle
+ * Purpose : CSCI 145, Assignment 1
+ * Date :    1/26/17
+ */
+
+import java.util.*;
+
+/* Class Puzzle
+ *
+ * A Hidato puzzle as read from its input file: its size, its walls,
+ * its given clues and everything that can be worked out from them
+ * before the search starts.
+ *
+ * A Puzzle never changes after it has been constructed, so it is read
+ * once and shared by any number of HidatoSolvers, including solvers
+ * running at the same time on different threads. Each solver keeps
+ * the values it places in a Board of its own.
+ *
+ * Every cell is a single int, cell = row * width + col:
+ *   * givenValue[cell] is the value given in the cell, 0 if the cell is
+ *     to be filled in and WALL if the cell is an 'x'.
+ *   * clueCell[value] is the cell holding the given value, or NONE if
+ *     value is not a clue. Index 0 is unused.
+ *   * the neighbors of cell are neighbors[neighborStart[cell]] up to
+ *     neighbors[neighborStart[cell + 1] - 1]. Cells off the grid and
+ *     walls are never neighbors.
+ *   * nextClue[value] is the smallest given value >= value.
+ *   * prevClue[value] is the largest given value <= value, or 0 if
+ *     there is none.
+ *   * nextMissing[value] is the smallest value >= value that is not
+ *     given, or NONE if every value from there up is given.
+ *   * mustFill is true if there are exactly as many cells to fill in
+ *     as values missing, so that every free cell must take a value.
+ *     Placing or removing a value changes both counts alike, so this
+ *     holds for every board made from the puzzle.
+ *
+ * The arrays are package-private so that the search can read them
+ * directly; nothing may write to them.
+ */
+public class Puzzle {
+
+    static final int WALL = -1;
+    static final int NONE = -1;
+
+    // Row and column offsets of the eight adjacent cells, in the order
+    // the search has always tried them
+    static final int[] ROW_OFFSETS = {1, 1, 0, -1, -1, -1, 0, 1};
+    static final int[] COL_OFFSETS = {0, 1, 1, 1, 0, -1, -1, -1};
+
+    final int height;
+    final int width;
+    final int highestNum;
+
+    final int[] givenValue;
+    final int[] clueCell;
+
+    final int[] cellRow;
+    final int[] cellCol;
+
+    final int[] neighborStart;
+    final int[] neighbors;
+
+    final int[] nextClue;
+    final int[] prevClue;
+    final int[] nextMissing;
+
+    final boolean mustFill;
+
+    /* Create a puzzle from a grid of values.
+     *
+     * grid[r][c] is the value given at (r, c), 0 for a cell to be
+     * filled in or -1 for an 'x'.
+     */
+    public Puzzle(int[][] grid) {
+        height = grid.length;
+        width = grid[0].length;
+
+        int cells = height * width;
+        givenValue = new int[cells];
+        cellRow = new int[cells];
+        cellCol = new int[cells];
+
+        int highest = 0;
+        for (int r = 0; r < height; r++) {
+            for (int c = 0; c < width; c++) {
+                int cell = r * width + c;
+                givenValue[cell] = grid[r][c] < 0 ? WALL : grid[r][c];
+                cellRow[cell] = r;
+                cellCol[cell] = c;
+                highest = Math.max(highest, grid[r][c]);
+            }
+        }
+        highestNum = highest;
+
+        clueCell = new int[highestNum + 1];
+        Arrays.fill(clueCell, NONE);
+        for (int cell = 0; cell < cells; cell++) {
+            if (givenValue[cell] > 0) {
+                clueCell[givenValue[cell]] = cell;
+            }
+        }
+
+        neighborStart = new int[cells + 1];
+        int[] adjacent = new int[cells * ROW_OFFSETS.length];
+        int count = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            neighborStart[cell] = count;
+            if (givenValue[cell] == WALL) {
+                continue;
+            }
+            for (int i = 0; i < ROW_OFFSETS.length; i++) {
+                int row = cellRow[cell] + ROW_OFFSETS[i];
+                int col = cellCol[cell] + COL_OFFSETS[i];
+                if (row >= 0 && row < height && col >= 0 && col < width
+                        && givenValue[row * width + col] != WALL) {
+                    adjacent[count++] = row * width + col;
+                }
+            }
+        }
+        neighborStart[cells] = count;
+        neighbors = Arrays.copyOf(adjacent, count);
+
+        nextClue = new int[highestNum + 2];
+        nextMissing = new int[highestNum + 2];
+        nextClue[highestNum + 1] = NONE;
+        nextMissing[highestNum + 1] = NONE;
+        for (int value = highestNum; value >= 1; value--) {
+            if (clueCell[value] != NONE) {
+                nextClue[value] = value;
+                nextMissing[value] = nextMissing[value + 1];
+            } else {
+                nextClue[value] = nextClue[value + 1];
+                nextMissing[value] = value;
+            }
+        }
+
+        int missing = 0;
+        for (int value = 1; value <= highestNum; value++) {
+            if (clueCell[value] == NONE) {
+                missing++;
+            }
+        }
+        int free = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if (givenValue[cell] == 0) {
+                free++;
+            }
+        }
+        mustFill = (free == missing);
+
+        prevClue = new int[highestNum + 2];
+        for (int value = 1; value <= highestNum + 1; value++) {
+            if (value <= highestNum && clueCell[value] != NONE) {
+                prevClue[value] = value;
+            } else {
+                prevClue[value] = prevClue[value - 1];
+            }
+        }
+    }
+
+    /* Read a puzzle in the text format of the hid*.txt files: a line
+     * holding the height and width, then one line per row with a
+     * number, '.' or 'x' for each cell. Blank lines before the height
+     * and width are skipped, so several puzzles can be read one after
+     * another from the same input.
+     */
+    public static Puzzle read(Scanner input) {
+        String line = input.nextLine();
+        while (line.trim().isEmpty()) {
+            line = input.nextLine();
+        }
+        Scanner scan = new Scanner(line);
+
+        int heightPuzzle = scan.nextInt();
+        int widthPuzzle = scan.nextInt();
+
+        int[][] locationGrid = new int[heightPuzzle][widthPuzzle];
+        for(int r = 0; r < heightPuzzle; r++){
+            Scanner row = new Scanner(input.nextLine());
+            for (int c = 0; c < widthPuzzle; c++){
+                if (row.hasNext()){
+                    if (row.hasNextInt()){
+                        locationGrid[r][c] = row.nextInt();
+                    } else if((row.next().equals("x"))) {
+                        locationGrid[r][c] = -1;
+                    }
+                }
+            }
+        }
+
+        return new Puzzle(locationGrid);
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHighestNum() {
+        return highestNum;
+    }
+
+    public int cells() {
+        return givenValue.length;
+    }
+
+    public int row(int cell) {
+        return cellRow[cell];
+    }
+
+    public int col(int cell) {
+        return cellCol[cell];
+    }
+
+    /* The value given at cell, 0 for a cell to be filled in or WALL.
+     */
+    public int givenAt(int cell) {
+        return givenValue[cell];
+    }
+}
@@ -0,0 +1,290 @@
+/**
+ * Author :  Robert Sanborn
+ * File :    PuzzleReader
+ * Purpose : CSCI 145, Assignment 1
+ * Date :    1/26/17
+ */
+
+import java.io.*;
+import java.util.*;
+
+/* Class PuzzleReader
+ *
+ * Reads puzzles in the text format of the hid*.txt files straight out
+ * of a byte buffer. It accepts exactly what Puzzle.read(Scanner)
+ * accepts and builds the same Puzzle, but it creates no Scanner,
+ * String or other object per line or per token: the only allocations
+ * are the buffer and each puzzle's own grid.
+ *
+ * As with Puzzle.read:
+ *   * blank lines before a puzzle's height and width are skipped, so a
+ *     file may hold several puzzles one after another.
+ *   * anything after the width on the header line is ignored.
+ *   * each row is one line. A number is a given value, 'x' is a wall
+ *     and any other token ('.') is a cell to fill in. Tokens past the
+ *     width are ignored, and cells missing from a short line are
+ *     cells to fill in.
+ *
+ * A missing row throws NoSuchElementException and a bad height or
+ * width throws InputMismatchException, as Scanner does. The header
+ * line is used up either way, and skipPuzzle() then moves on to where
+ * the next puzzle seems to start, so the puzzles after a bad one can
+ * still be read.
+ */
+public class PuzzleReader {
+
+    private static final int EOF = -1;
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+
+    public PuzzleReader(InputStream in) {
+        this(in, 1 << 16);
+    }
+
+    public PuzzleReader(InputStream in, int bufferSize) {
+        this.in = in;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /* Read the single puzzle in file.
+     */
+    public static Puzzle read(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            return new PuzzleReader(in).read();
+        } finally {
+            in.close();
+        }
+    }
+
+    /* Whether anything but white space is left to read.
+     */
+    public boolean hasPuzzle() throws IOException {
+        int b = peek();
+        while (b != EOF && isSpace(b)) {
+            position++;
+            b = peek();
+        }
+        return b != EOF;
+    }
+
+    /* Read the next puzzle.
+     */
+    public Puzzle read() throws IOException {
+        if (!hasPuzzle()) {
+            throw new NoSuchElementException("No puzzle left to read");
+        }
+
+        int height;
+        int width;
+        try {
+            height = headerInt();
+            width = headerInt();
+        } finally {
+            skipLine();
+        }
+
+        int[][] grid = new int[height][width];
+        for (int r = 0; r < height; r++) {
+            if (peek() == EOF) {
+                throw new NoSuchElementException("Puzzle has only " + r
+                        + " of its " + height + " rows");
+            }
+            readRow(grid[r]);
+        }
+        return new Puzzle(grid);
+    }
+
+    /* Skip what is left of a puzzle that could not be read: every line
+     * up to and including the next blank line, or up to the next line
+     * that starts with two integers, as a height and width line does.
+     */
+    public void skipPuzzle() throws IOException {
+        while (peek() != EOF) {
+            int b = skipBlanks();
+            if (b == EOF || b == '\n') {
+                skipLine();
+                return;
+            }
+            if (headerAhead()) {
+                return;
+            }
+            skipLine();
+        }
+    }
+
+    // Whether the rest of the line starts with two integers, looking
+    // ahead without moving past them
+    private boolean headerAhead() throws IOException {
+        // Get the whole line into the buffer, if it fits
+        int scanned = 0;
+        while (true) {
+            while (position + scanned < limit
+                    && buffer[position + scanned] != '\n') {
+                scanned++;
+            }
+            if (position + scanned < limit || !fill()) {
+                break;
+            }
+        }
+        int end = position + scanned;
+
+        int i = position;
+        for (int count = 0; count < 2; count++) {
+            while (i < end && isSpace(buffer[i] & 0xFF)) {
+                i++;
+            }
+            if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+                i++;
+            }
+            int digits = 0;
+            while (i < end && buffer[i] >= '0' && buffer[i] <= '9') {
+                i++;
+                digits++;
+            }
+            if (digits == 0 || (i < end && !isSpace(buffer[i] & 0xFF))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Move the unread bytes to the front of the buffer and read more
+    // after them. Returns false if the buffer is full or the input is
+    // used up.
+    private boolean fill() throws IOException {
+        System.arraycopy(buffer, position, buffer, 0, limit - position);
+        limit -= position;
+        position = 0;
+        if (limit == buffer.length) {
+            return false;
+        }
+        int count = in.read(buffer, limit, buffer.length - limit);
+        if (count <= 0) {
+            return false;
+        }
+        limit += count;
+        return true;
+    }
+
+    // One integer from the header line
+    private int headerInt() throws IOException {
+        int b = skipBlanks();
+        if (b == EOF || b == '\n') {
+            throw new InputMismatchException("Missing puzzle height or width");
+        }
+        long value = token();
+        if (value == Long.MIN_VALUE) {
+            throw new InputMismatchException("Bad puzzle height or width");
+        }
+        return (int) value;
+    }
+
+    // Fill row from one line, then move past the end of the line
+    private void readRow(int[] row) throws IOException {
+        int c = 0;
+        int b = skipBlanks();
+        while (b != EOF && b != '\n') {
+            long value = token();
+            if (c < row.length) {
+                if (value == Long.MIN_VALUE) {
+                    row[c] = 0;
+                } else {
+                    row[c] = (int) value;
+                }
+                c++;
+            }
+            b = skipBlanks();
+        }
+        if (b == '\n') {
+            position++;
+        }
+    }
+
+    // Read one token: its value if it is an int, -1 if it is 'x' and
+    // Long.MIN_VALUE if it is anything else
+    private long token() throws IOException {
+        int b = peek();
+        boolean negative = false;
+        boolean number = true;
+        boolean wall = (b == 'x');
+        int length = 0;
+        int digits = 0;
+        long value = 0;
+
+        if (b == '-' || b == '+') {
+            negative = (b == '-');
+            position++;
+            length++;
+            b = peek();
+        }
+        while (b != EOF && !isSpace(b)) {
+            if (b >= '0' && b <= '9') {
+                if (number) {
+                    value = value * 10 + (b - '0');
+                    number = value <= Integer.MAX_VALUE + 1L;
+                }
+                digits++;
+            } else {
+                number = false;
+            }
+            position++;
+            length++;
+            b = peek();
+        }
+
+        if (wall && length == 1) {
+            return -1;
+        }
+        if (!number || digits == 0) {
+            return Long.MIN_VALUE;
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+            return Long.MIN_VALUE;
+        }
+        return value;
+    }
+
+    // Skip spaces, tabs and carriage returns, but not a newline
+    private int skipBlanks() throws IOException {
+        int b = peek();
+        while (b != EOF && b != '\n' && isSpace(b)) {
+            position++;
+            b = peek();
+        }
+        return b;
+    }
+
+    private void skipLine() throws IOException {
+        int b = peek();
+        while (b != EOF && b != '\n') {
+            position++;
+            b = peek();
+        }
+        if (b == '\n') {
+            position++;
+        }
+    }
+
+    private static boolean isSpace(int b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n'
+                || b == '\f' || b == 0x0B;
+    }
+
+    // The next byte, without moving past it
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return EOF;
+            }
+        }
+        return buffer[position] & 0xFF;
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Author :  Robert Sanborn
+ * File :    Reachability
+ * Purpose : CSCI 145, Assignment 1
+ * Date :    1/26/17
+ */
+
+import java.util.*;
+
+/* Class Reachability
+ *
+ * Shortest distances through free cells on a Board.
+ *
+ * search(source, limit) runs a breadth first search out from source,
+ * stepping only onto free cells, and stops limit steps out. distance
+ * then gives the number of moves from source to any free cell it
+ * reached. The arrays are reused from one search to the next (a stamp
+ * marks which entries are current), so a search costs only the cells
+ * it visits.
+ */
+class Reachability {
+
+    static final int FAR = Integer.MAX_VALUE;
+
+    private final Board board;
+    private final int[] seen;
+    private final int[] dist;
+    private final int[] queue;
+    private int stamp;
+
+    Reachability(Board board) {
+        this.board = board;
+        seen = new int[board.cells()];
+        dist = new int[board.cells()];
+        queue = new int[board.cells()];
+    }
+
+    void search(int source, int limit) {
+        stamp++;
+        if (stamp == 0) {
+            Arrays.fill(seen, 0);
+            stamp = 1;
+        }
+
+        int head = 0;
+        int tail = 0;
+        seen[source] = stamp;
+        dist[source] = 0;
+        queue[tail++] = source;
+
+        while (head < tail) {
+            int cell = queue[head++];
+            int d = dist[cell] + 1;
+            if (d > limit) {
+                break;
+            }
+            for (int i = board.neighborStart[cell];
+                 i < board.neighborStart[cell + 1]; i++) {
+                int next = board.neighbors[i];
+                if (seen[next] != stamp && board.isFree(next)) {
+                    seen[next] = stamp;
+                    dist[next] = d;
+                    queue[tail++] = next;
+                }
+            }
+        }
+    }
+
+    /* Moves from the last search's source to cell, or FAR if the search
+     * did not reach it.
+     */
+    int distance(int cell) {
+        return seen[cell] == stamp ? dist[cell] : FAR;
+    }
+}
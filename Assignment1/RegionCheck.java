@@ -0,0 +1,159 @@
+/**
+ * Author :  Robert Sanborn
+ * File :    RegionCheck
+ * Purpose : CSCI 145, Assignment 1
+ * Date :    1/26/17
+ */
+
+import java.util.*;
+
+/* Class RegionCheck
+ *
+ * Finds pockets of free cells that can no longer be filled.
+ *
+ * A region is a connected group of free cells. Each free cell must
+ * eventually hold a value on the path between two values already on
+ * the board, so the path must get into the region from an open end:
+ * a placed value v with v - 1 or v + 1 still missing. A path that
+ * comes in through one open end can only leave again by finishing at
+ * another open end next to the region. So a region beside fewer than
+ * two open ends can never be filled (one is enough only when 1 or the
+ * highest value is missing, since the path can then stop inside the
+ * region).
+ *
+ * The rule assumes every free cell must be filled, which is true when
+ * there are exactly as many free cells as missing values. Placing or
+ * removing a value changes both counts alike, so this is settled once
+ * for the puzzle (Puzzle.mustFill); on any other puzzle the check
+ * passes everything.
+ */
+class RegionCheck {
+
+    private final Board board;
+    private final boolean mustFill;
+
+    // seen[cell] == stamp marks a free cell already put in a region
+    // during the current check; counted[cell] == region marks an open
+    // end already counted for the region being filled
+    private final int[] seen;
+    private final int[] counted;
+    private final int[] stack;
+    private int stamp;
+    private int region;
+
+    /* Pre: board is the starting board of the search.
+     */
+    RegionCheck(Board board) {
+        this.board = board;
+        seen = new int[board.cells()];
+        counted = new int[board.cells()];
+        stack = new int[board.cells()];
+        mustFill = board.mustFill;
+    }
+
+    /* Check every region on the board.
+     */
+    boolean checkAll() {
+        if (!mustFill) {
+            return true;
+        }
+        newStamp();
+        for (int cell = 0; cell < board.cells(); cell++) {
+            if (board.isFree(cell) && seen[cell] != stamp
+                    && !checkRegion(cell)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /* Check the regions that can have changed since value was placed in
+     * cell: those beside cell, which may have been split in two, and
+     * those beside value - 1 and value + 1, which may have stopped being
+     * open ends. Every other region is as it was when last checked.
+     */
+    boolean checkAround(int cell, int value) {
+        if (!mustFill) {
+            return true;
+        }
+        newStamp();
+        if (!checkNeighbors(cell)) {
+            return false;
+        }
+        if (value > 1 && board.isPlaced(value - 1)
+                && !checkNeighbors(board.cellOf(value - 1))) {
+            return false;
+        }
+        if (value < board.highestNum && board.isPlaced(value + 1)
+                && !checkNeighbors(board.cellOf(value + 1))) {
+            return false;
+        }
+        return true;
+    }
+
+    private boolean checkNeighbors(int cell) {
+        for (int i = board.neighborStart[cell];
+             i < board.neighborStart[cell + 1]; i++) {
+            int next = board.neighbors[i];
+            if (board.isFree(next) && seen[next] != stamp
+                    && !checkRegion(next)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Flood fill the region holding start and count the open ends next
+    // to it, stopping the count once there are enough
+    private boolean checkRegion(int start) {
+        // With 1 or the highest value missing, a path may end in here
+        int needed = (board.isPlaced(1) ? 1 : 0)
+                   + (board.isPlaced(board.highestNum) ? 1 : 0);
+        if (needed == 0) {
+            return true;
+        }
+
+        region++;
+        if (region == Integer.MAX_VALUE) {
+            Arrays.fill(counted, 0);
+            region = 1;
+        }
+
+        int openEnds = 0;
+        int top = 0;
+        seen[start] = stamp;
+        stack[top++] = start;
+        while (top > 0) {
+            int cell = stack[--top];
+            for (int i = board.neighborStart[cell];
+                 i < board.neighborStart[cell + 1]; i++) {
+                int next = board.neighbors[i];
+                if (board.isFree(next)) {
+                    if (seen[next] != stamp) {
+                        seen[next] = stamp;
+                        stack[top++] = next;
+                    }
+                } else if (openEnds < needed && counted[next] != region
+                        && isOpenEnd(next)) {
+                    counted[next] = region;
+                    openEnds++;
+                }
+            }
+        }
+        return openEnds >= needed;
+    }
+
+    private boolean isOpenEnd(int cell) {
+        int value = board.valueAt(cell);
+        return (value > 1 && !board.isPlaced(value - 1))
+            || (value < board.highestNum && !board.isPlaced(value + 1));
+    }
+
+    private void newStamp() {
+        stamp++;
+        if (stamp == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            stamp = 1;
+        }
+    }
+}
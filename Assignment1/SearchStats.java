@@ -0,0 +1,138 @@
+/**
+ * Author :  Robert Sanborn
+ * File :    SearchStats
+ * Purpose : CSCI 145, Assignment 1
+ * Date :    1/26/17
+ */
+
+/* Class SearchStats
+ *
+ * Counts kept by a HidatoSearch of the branches each optional stage
+ * cut off. A branch is one value placed in one cell; cutting it saves
+ * the step that would have explored it and everything below that step.
+ */
+public class SearchStats {
+
+    // Cells ruled out because the next value on the board could not be
+    // reached from them through free cells in time
+    long reachabilityCuts;
+
+    // Placements that cut a group of free cells off from every way the
+    // path could still fill it
+    long regionCuts;
+
+    // Placements that left a free cell with too few usable neighbors
+    long deadEndCuts;
+
+    // Cells left out of the search because they had dropped out of the
+    // value's domain, steps at which some domain became empty, and
+    // values placed because their domain came down to one cell
+    long domainCuts;
+    long domainFailures;
+    long forcedPlacements;
+
+    // Values pinned to a cell because no other value could take it
+    long hiddenSingles;
+
+    // Cells taken out of domains because no assignment of a cell of
+    // its own to every missing value used them
+    long matchingCuts;
+
+    // Lookups in the transposition table, how many found the board
+    // already known to fail, boards stored and stored over an older
+    // entry, and the bytes the table takes
+    long tableProbes;
+    long tableHits;
+    long tableStores;
+    long tableReplacements;
+    long tableBytes;
+
+    public long getReachabilityCuts() {
+        return reachabilityCuts;
+    }
+
+    public long getRegionCuts() {
+        return regionCuts;
+    }
+
+    public long getDeadEndCuts() {
+        return deadEndCuts;
+    }
+
+    public long getDomainCuts() {
+        return domainCuts;
+    }
+
+    public long getDomainFailures() {
+        return domainFailures;
+    }
+
+    public long getForcedPlacements() {
+        return forcedPlacements;
+    }
+
+    public long getHiddenSingles() {
+        return hiddenSingles;
+    }
+
+    public long getMatchingCuts() {
+        return matchingCuts;
+    }
+
+    public long getTableProbes() {
+        return tableProbes;
+    }
+
+    public long getTableHits() {
+        return tableHits;
+    }
+
+    public long getTableStores() {
+        return tableStores;
+    }
+
+    public long getTableReplacements() {
+        return tableReplacements;
+    }
+
+    public long getTableBytes() {
+        return tableBytes;
+    }
+
+    /* The fraction of lookups in the transposition table that found
+     * the board, or 0 if there were none.
+     */
+    public double getTableHitRate() {
+        return tableProbes == 0 ? 0 : (double) tableHits / tableProbes;
+    }
+
+    /* The counts of the stages that cut anything, one per line.
+     */
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        line(text, "reachability cuts", reachabilityCuts);
+        line(text, "region cuts", regionCuts);
+        line(text, "dead end cuts", deadEndCuts);
+        line(text, "domain cuts", domainCuts);
+        line(text, "domain failures", domainFailures);
+        line(text, "forced placements", forcedPlacements);
+        line(text, "hidden singles", hiddenSingles);
+        line(text, "matching cuts", matchingCuts);
+        line(text, "table probes", tableProbes);
+        line(text, "table hits", tableHits);
+        if (tableProbes > 0) {
+            text.append(String.format("%-22s %.1f%%%n", "table hit rate:",
+                                      100 * getTableHitRate()));
+        }
+        line(text, "table stores", tableStores);
+        line(text, "table replacements", tableReplacements);
+        line(text, "table bytes", tableBytes);
+        return text.toString();
+    }
+
+    private static void line(StringBuilder text, String name, long count) {
+        if (count > 0) {
+            text.append(String.format("%-22s %d%n", name + ":", count));
+        }
+    }
+}
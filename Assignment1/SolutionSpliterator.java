@@ -0,0 +1,72 @@
+/**
+ * Author :  Robert Sanborn
+ * File :    SolutionSpliterator
+ * Purpose : CSCI 145, Assignment 1
+ * Date :    1/26/17
+ */
+
+import java.util.*;
+import java.util.function.*;
+
+/* Class SolutionSpliterator
+ *
+ * The solutions of a puzzle, found one at a time as they are asked for.
+ *
+ * tryAdvance runs the search on to its next solution and hands over a
+ * copy of the board, leaving the search suspended just past it. The
+ * next call resumes from there. trySplit gives about half of the
+ * untried cells at the shallowest level of the search to a new
+ * spliterator with its own search and board, so a parallel stream can
+ * enumerate different subtrees on different threads. Solutions come
+ * out in the search's order on a single thread, but splitting hands
+ * off later parts of the tree, so the spliterator is not ORDERED.
+ *
+ * A search that times out or is cancelled simply ends the solutions.
+ */
+class SolutionSpliterator implements Spliterator<Board> {
+
+    private final HidatoSearch search;
+    private final Board board;
+
+    // Whether the search's current solution has already been handed out
+    private boolean delivered;
+
+    SolutionSpliterator(HidatoSearch search) {
+        this.search = search;
+        this.board = search.getBoard();
+    }
+
+    public boolean tryAdvance(Consumer<? super Board> action) {
+        int state = search.state();
+        if (state == HidatoSearch.SOLVED && delivered) {
+            search.resume();
+            state = HidatoSearch.PAUSED;
+        }
+        if (state == HidatoSearch.PAUSED) {
+            state = search.run();
+        }
+        if (state != HidatoSearch.SOLVED) {
+            return false;
+        }
+        delivered = true;
+        action.accept(new Board(board));
+        return true;
+    }
+
+    public Spliterator<Board> trySplit() {
+        // A search that has not started has nothing to split yet
+        if (search.depth() == 0 && search.state() == HidatoSearch.PAUSED) {
+            search.run(1);
+        }
+        HidatoSearch other = search.split();
+        return other == null ? null : new SolutionSpliterator(other);
+    }
+
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    public int characteristics() {
+        return NONNULL;
+    }
+}
@@ -0,0 +1,246 @@
+/**
+ * Author :  Robert Sanborn
+ * File :    SolveOptions
+ * Purpose : CSCI 145, Assignment 1
+ * Date :    1/26/17
+ */
+
+import java.util.concurrent.atomic.*;
+
+/* Class SolveOptions
+ *
+ * The optional stages of a HidatoSolver's search. Every stage is off
+ * by default, which gives the original search step for step. Each
+ * stage only removes branches that cannot lead to a solution, so
+ * turning one on never changes whether a puzzle is solved, only how
+ * many steps it takes.
+ *
+ *   * reachability: a cell may only take value next if it can reach
+ *     the next value on the board in end - next moves through free
+ *     cells, instead of just being that close as the king moves.
+ *   * regions: after each placement, no group of free cells may be
+ *     cut off from the open ends of the path (see RegionCheck).
+ *   * deadEnds: after each placement, no free cell may be left with
+ *     too few usable neighbors (see DeadEndCheck).
+ *   * domains: before each step, narrow the cells every missing value
+ *     could go in and place the values left with just one, without
+ *     branching (see DomainPropagator).
+ *   * hiddenSingles: as domains, and also place a value in any free
+ *     cell that no other value can take. Implies domains.
+ *   * matching: as domains, and also check that the missing values can
+ *     all be given cells of their own, taking out of the domains the
+ *     cells no such assignment uses (see MatchingFilter). Implies
+ *     domains.
+ *   * tableSize: if above 0, remember up to this many boards that
+ *     have been searched without finding a solution, and fail at once
+ *     on reaching one of them again (see TranspositionTable).
+ *
+ * The budgets stop a search that is taking too long, with the result
+ * HidatoSearch.TIMEOUT or CANCELLED instead of SOLVED or FAILED. They
+ * are off by default.
+ *
+ *   * maxSteps: if above 0, the most steps one solve may take.
+ *   * timeLimit: if above 0, the most milliseconds one solve may run.
+ *   * cancelFlag: if set, every search using these options stops as
+ *     soon as the flag becomes true. Shared options make it a single
+ *     switch for a whole batch.
+ *   * order: which value each step places. SEQUENTIAL fills the lowest
+ *     missing value next, as explore() always has. CONSTRAINED looks
+ *     at both ends of every run of missing values and extends the one
+ *     with the fewest viable cells, forward or backward. BIDIRECTIONAL
+ *     fills the lowest run from both ends in turn, growing whichever
+ *     end has advanced less from its clue, so the two halves meet in
+ *     the middle. On the hidtest puzzles it takes more steps than
+ *     SEQUENTIAL, with or without the pruning stages.
+ *
+ * The setters return the options so they can be chained:
+ *
+ *   new SolveOptions().setReachability(true)
+ */
+public class SolveOptions {
+
+    // The options as given on a command line
+    public static final String usage = "[-reach] [-regions] [-deadends]"
+            + " [-domains] [-singles] [-matching] [-table entries]"
+            + " [-steps max_steps] [-time max_millis]"
+            + " [-order sequential|constrained|bidirectional]";
+
+    // The order values are placed in
+    public enum Order { SEQUENTIAL, CONSTRAINED, BIDIRECTIONAL }
+
+    boolean reachability;
+    boolean regions;
+    boolean deadEnds;
+    boolean domains;
+    boolean hiddenSingles;
+    boolean matching;
+    int tableSize;
+
+    long maxSteps;
+    long timeLimit;
+    AtomicBoolean cancelFlag;
+    Order order = Order.SEQUENTIAL;
+
+    public SolveOptions setReachability(boolean reachability) {
+        this.reachability = reachability;
+        return this;
+    }
+
+    public boolean getReachability() {
+        return reachability;
+    }
+
+    public SolveOptions setRegions(boolean regions) {
+        this.regions = regions;
+        return this;
+    }
+
+    public boolean getRegions() {
+        return regions;
+    }
+
+    public SolveOptions setDeadEnds(boolean deadEnds) {
+        this.deadEnds = deadEnds;
+        return this;
+    }
+
+    public boolean getDeadEnds() {
+        return deadEnds;
+    }
+
+    public SolveOptions setDomains(boolean domains) {
+        this.domains = domains;
+        return this;
+    }
+
+    public boolean getDomains() {
+        return domains;
+    }
+
+    public SolveOptions setHiddenSingles(boolean hiddenSingles) {
+        this.hiddenSingles = hiddenSingles;
+        return this;
+    }
+
+    public boolean getHiddenSingles() {
+        return hiddenSingles;
+    }
+
+    public SolveOptions setMatching(boolean matching) {
+        this.matching = matching;
+        return this;
+    }
+
+    public boolean getMatching() {
+        return matching;
+    }
+
+    public SolveOptions setTableSize(int tableSize) {
+        this.tableSize = tableSize;
+        return this;
+    }
+
+    public int getTableSize() {
+        return tableSize;
+    }
+
+    public SolveOptions setMaxSteps(long maxSteps) {
+        this.maxSteps = maxSteps;
+        return this;
+    }
+
+    public long getMaxSteps() {
+        return maxSteps;
+    }
+
+    public SolveOptions setTimeLimit(long millis) {
+        this.timeLimit = millis;
+        return this;
+    }
+
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    public SolveOptions setCancelFlag(AtomicBoolean cancelFlag) {
+        this.cancelFlag = cancelFlag;
+        return this;
+    }
+
+    public AtomicBoolean getCancelFlag() {
+        return cancelFlag;
+    }
+
+    public SolveOptions setOrder(Order order) {
+        this.order = order;
+        return this;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    /* Set the option named by args[i], if it is one of the options in
+     * usage. Returns how many arguments it used, or 0 if args[i] is not
+     * a solver option.
+     */
+    public int parse(String[] args, int i) {
+        if (args[i].equals("-reach")) {
+            reachability = true;
+            return 1;
+        }
+        if (args[i].equals("-regions")) {
+            regions = true;
+            return 1;
+        }
+        if (args[i].equals("-deadends")) {
+            deadEnds = true;
+            return 1;
+        }
+        if (args[i].equals("-domains")) {
+            domains = true;
+            return 1;
+        }
+        if (args[i].equals("-singles")) {
+            hiddenSingles = true;
+            return 1;
+        }
+        if (args[i].equals("-matching")) {
+            matching = true;
+            return 1;
+        }
+        if (args[i].equals("-table") && i + 1 < args.length) {
+            try {
+                tableSize = Integer.parseInt(args[i + 1]);
+                return 2;
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        if (args[i].equals("-steps") && i + 1 < args.length) {
+            try {
+                maxSteps = Long.parseLong(args[i + 1]);
+                return 2;
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        if (args[i].equals("-time") && i + 1 < args.length) {
+            try {
+                timeLimit = Long.parseLong(args[i + 1]);
+                return 2;
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        if (args[i].equals("-order") && i + 1 < args.length) {
+            for (Order choice : Order.values()) {
+                if (choice.name().equalsIgnoreCase(args[i + 1])) {
+                    order = choice;
+                    return 2;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Author :  Robert Sanborn
+ * File :    Trail
+ * Purpose : CSCI 145, Assignment 1
+ * Date :    1/26/17
+ */
+
+import java.util.*;
+
+/* Class Trail
+ *
+ * An undo log for the search. Every change to search state goes through
+ * set(), which writes the new value and logs the array, index and old
+ * value. mark() returns a checkpoint, and undo(mark) writes back the old
+ * values of everything set since then, newest first. Undo costs one
+ * step per change, whatever the state is, so new kinds of state can be
+ * made undoable just by setting them through the trail.
+ *
+ * Both int[] and long[] entries can be set; a long held on its own is
+ * kept in an array of one. A Listener, if given, is told of each entry
+ * as it is restored, so that a display can follow the undo.
+ */
+class Trail {
+
+    interface Listener {
+        void restored(Object array, int index);
+    }
+
+    private Object[] arrays = new Object[64];
+    private int[] indices = new int[64];
+    private long[] oldValues = new long[64];
+    private int top;
+
+    private Listener listener;
+
+    void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    int mark() {
+        return top;
+    }
+
+    /* The array and index of the i-th change still on the trail.
+     */
+    Object arrayAt(int i) {
+        return arrays[i];
+    }
+
+    int indexAt(int i) {
+        return indices[i];
+    }
+
+    void set(int[] array, int index, int value) {
+        log(array, index, array[index]);
+        array[index] = value;
+    }
+
+    void set(long[] array, int index, long value) {
+        log(array, index, array[index]);
+        array[index] = value;
+    }
+
+    /* Restore everything set since mark was taken.
+     */
+    void undo(int mark) {
+        while (top > mark) {
+            top--;
+            Object array = arrays[top];
+            if (array instanceof int[]) {
+                ((int[]) array)[indices[top]] = (int) oldValues[top];
+            } else {
+                ((long[]) array)[indices[top]] = oldValues[top];
+            }
+            arrays[top] = null;
+            if (listener != null) {
+                listener.restored(array, indices[top]);
+            }
+        }
+    }
+
+    private void log(Object array, int index, long oldValue) {
+        if (top == arrays.length) {
+            arrays = Arrays.copyOf(arrays, 2 * top);
+            indices = Arrays.copyOf(indices, 2 * top);
+            oldValues = Arrays.copyOf(oldValues, 2 * top);
+        }
+        arrays[top] = array;
+        indices[top] = index;
+        oldValues[top] = oldValue;
+        top++;
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * Author :  Robert Sanborn
+ * File :    TranspositionTable
+ * Purpose : CSCI 145, Assignment 1
+ * Date :    1/26/17
+ */
+
+import java.util.*;
+
+/* Class TranspositionTable
+ *
+ * A fixed size table of boards the search has already shown to have no
+ * solution, so that reaching the same board again down another path
+ * fails at once instead of being searched again.
+ *
+ * What is left to solve from a board depends only on which cells are
+ * taken, which values are missing and where the placed values next to
+ * a missing value are: the ends of the runs still to fill. The values
+ * inside a filled run only matter through the cells they take. A run
+ * end on its own does not say which side of it is missing, so a board
+ * holding 6 and 11 with 4, 8, 9 and 13 missing has the same ends, in
+ * the same cells, as one holding 8 and 9 there with 4, 6, 11 and 13
+ * missing. The key therefore records each end together with its
+ * missing side: knowing, for every end, whether the value below it,
+ * the value above it or both are missing fixes which values are
+ * missing.
+ *
+ * A board is keyed by a Zobrist hash: the XOR of a random 64 bit
+ * number for each taken cell, for each (value, cell) pair with value
+ * - 1 missing and for each (value, cell) pair with value + 1 missing.
+ * Two boards with the same key have the same problem left to solve,
+ * barring a collision of the 64 bit hashes. HidatoSearch keeps the
+ * hash up to date as values are placed and removed, XORing in and out
+ * only the numbers that change.
+ *
+ * The table is split into buckets of four entries, chosen by the high
+ * bits of the key. Each entry holds the key and the number of steps it
+ * took to show that board had no solution. When a bucket is full the
+ * entry that took the fewest steps is replaced, so the boards that are
+ * most costly to search again are kept longest.
+ */
+class TranspositionTable {
+
+    private static final int BUCKET = 4;
+
+    private final long[] cellKeys;
+    private final long[] lowKeys;
+    private final long[] highKeys;
+    private final int cells;
+
+    private final long[] keys;
+    private final int[] work;
+    private final int bucketBits;
+
+    private long probes;
+    private long hits;
+    private long stores;
+    private long replacements;
+
+    /* Create a table for boards of the given puzzle, holding at most
+     * the given number of entries (rounded down to a power of two, and
+     * at least one bucket).
+     */
+    TranspositionTable(Puzzle puzzle, int entries) {
+        cells = puzzle.cells();
+        Random random = new Random(145);
+        cellKeys = new long[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            cellKeys[cell] = random.nextLong();
+        }
+        lowKeys = new long[(puzzle.highestNum + 1) * cells];
+        highKeys = new long[lowKeys.length];
+        for (int i = 0; i < lowKeys.length; i++) {
+            lowKeys[i] = random.nextLong();
+            highKeys[i] = random.nextLong();
+        }
+
+        int buckets = Integer.highestOneBit(Math.max(entries / BUCKET, 1));
+        bucketBits = Integer.numberOfTrailingZeros(buckets);
+        keys = new long[buckets * BUCKET];
+        work = new int[buckets * BUCKET];
+    }
+
+    /* The hash of cell being taken.
+     */
+    long cellKey(int cell) {
+        return cellKeys[cell];
+    }
+
+    /* The hash of value being placed in cell while value - 1 is
+     * missing.
+     */
+    long lowKey(int value, int cell) {
+        return lowKeys[value * cells + cell];
+    }
+
+    /* The hash of value being placed in cell while value + 1 is
+     * missing.
+     */
+    long highKey(int value, int cell) {
+        return highKeys[value * cells + cell];
+    }
+
+    /* Whether the board with the given hash is known to have no
+     * solution.
+     */
+    boolean contains(long key) {
+        key = nonZero(key);
+        probes++;
+        int base = bucket(key);
+        for (int i = base; i < base + BUCKET; i++) {
+            if (keys[i] == key) {
+                hits++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* Record that the board with the given hash has no solution, and
+     * that the search took the given number of steps to show it.
+     */
+    void store(long key, long steps) {
+        key = nonZero(key);
+        int cost = (int) Math.min(steps, Integer.MAX_VALUE);
+        int base = bucket(key);
+        int slot = base;
+        for (int i = base; i < base + BUCKET; i++) {
+            if (keys[i] == key) {
+                work[i] = Math.max(work[i], cost);
+                return;
+            }
+            if (keys[i] == 0) {
+                slot = i;
+                break;
+            }
+            if (work[i] < work[slot]) {
+                slot = i;
+            }
+        }
+
+        stores++;
+        if (keys[slot] != 0) {
+            replacements++;
+        }
+        keys[slot] = key;
+        work[slot] = cost;
+    }
+
+    long getProbes() {
+        return probes;
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    long getStores() {
+        return stores;
+    }
+
+    long getReplacements() {
+        return replacements;
+    }
+
+    /* Bytes taken by the entries and the Zobrist numbers.
+     */
+    long memory() {
+        return 8L * (keys.length + cellKeys.length + lowKeys.length
+                + highKeys.length)
+                + 4L * work.length;
+    }
+
+    private int bucket(long key) {
+        if (bucketBits == 0) {
+            return 0;
+        }
+        return (int) (key >>> (64 - bucketBits)) * BUCKET;
+    }
+
+    // 0 marks an empty entry
+    private static long nonZero(long key) {
+        return key == 0 ? 1 : key;
+    }
+}